@@ -0,0 +1,325 @@
+/**
+ * Copyright (C) Marcin Szeląg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rulelearn.converters;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * Runs stages of a conversion concurrently. Items produced by one stage (e.g., rules read from *.rules file) are passed, in batches,
+ * to the next stage (e.g., conversion of rules, or their serialization to RuleML) through a bounded queue. When the queue is full, the producing stage waits (back-pressure), so at most
+ * {@link #QUEUE_CAPACITY} + 2 batches are in memory at any time, regardless of the size of converted file.
+ *
+ * @author Marcin Szeląg (<a href="mailto:marcin.szelag@cs.put.poznan.pl">marcin.szelag@cs.put.poznan.pl</a>)
+ */
+final class BatchPipeline {
+
+	/**
+	 * Number of items passed between stages at once.
+	 */
+	static final int BATCH_SIZE = 256;
+	/**
+	 * Maximum number of batches waiting in the queue between stages.
+	 */
+	static final int QUEUE_CAPACITY = 4;
+	/**
+	 * Time (in milliseconds) after which consuming stage checks if producing stage has failed.
+	 */
+	static final long POLL_TIMEOUT_MILLIS = 50L;
+
+	/**
+	 * Producing stage of a pipeline.
+	 *
+	 * @param <T> type of produced items
+	 */
+	@FunctionalInterface
+	interface Source<T> {
+		/**
+		 * Produces next item.
+		 *
+		 * @return next item, or {@code null} if there are no more items
+		 * @throws IOException if item cannot be produced
+		 */
+		T next() throws IOException;
+	}
+
+	/**
+	 * Consuming stage of a pipeline.
+	 *
+	 * @param <T> type of consumed items
+	 */
+	@FunctionalInterface
+	interface Sink<T> {
+		/**
+		 * Consumes given item.
+		 *
+		 * @param item item to be consumed
+		 * @throws IOException if item cannot be consumed
+		 */
+		void accept(T item) throws IOException;
+	}
+
+	/**
+	 * Consuming stage of a pipeline, started by {@link #startSink(Sink, String, boolean)}, to which batches of items are passed
+	 * by {@link #put(List)}. If the stage is run in a background thread, batches are passed through a bounded queue.
+	 *
+	 * @param <T> type of consumed items
+	 *
+	 * @author Marcin Szeląg
+	 */
+	static final class BatchSink<T> {
+		private final Sink<List<T>> sink;
+		private final BlockingQueue<List<T>> queue; //null if batches are consumed in current thread
+		private final List<T> endOfBatches = new ObjectArrayList<T>(0); //recognized by identity
+		private final FutureTask<Void> consumer; //null if batches are consumed in current thread
+
+		private BatchSink(Sink<List<T>> sink, String threadName, boolean concurrently) {
+			this.sink = sink;
+			if (concurrently) {
+				queue = new ArrayBlockingQueue<List<T>>(QUEUE_CAPACITY);
+				consumer = startInBackground(() -> {
+					List<T> batch;
+					while ((batch = queue.take()) != endOfBatches) {
+						sink.accept(batch);
+					}
+					return null;
+				}, threadName);
+			} else {
+				queue = null;
+				consumer = null;
+			}
+		}
+
+		/**
+		 * Passes given batch to this stage. Waits while the queue is full.
+		 * Given batch must not be modified afterwards.
+		 *
+		 * @param batch batch of items
+		 * @throws IOException if this stage has thrown {@link IOException}, or current thread is interrupted
+		 */
+		void put(List<T> batch) throws IOException {
+			if (consumer == null) {
+				sink.accept(batch);
+				return;
+			}
+			try {
+				while (!queue.offer(batch, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+					if (consumer.isDone()) { //consumer has failed
+						getResult(consumer);
+					}
+				}
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Pipeline has been interrupted.");
+			}
+		}
+
+		/**
+		 * Waits until this stage consumes all passed batches.
+		 *
+		 * @throws IOException if this stage has thrown {@link IOException}, or current thread is interrupted
+		 */
+		void finish() throws IOException {
+			if (consumer != null) {
+				put(endOfBatches);
+				getResult(consumer);
+			}
+		}
+
+		/**
+		 * Stops this stage, if it is run in a background thread and has not finished yet. Used when preceding stage has failed.
+		 */
+		void cancel() {
+			if (consumer != null) {
+				consumer.cancel(true);
+			}
+		}
+	}
+
+	private BatchPipeline() {
+	}
+
+	/**
+	 * Runs given source in a background thread and given sink in current thread, until the source has no more items.
+	 * Items are passed to the sink in the order in which they are produced.
+	 *
+	 * @param source producing stage
+	 * @param sink consuming stage
+	 * @param <T> type of passed items
+	 * @param threadName name of the background thread
+	 *
+	 * @throws IOException if any of the stages throws {@link IOException}, or current thread is interrupted
+	 */
+	static <T> void run(Source<T> source, Sink<T> sink, String threadName) throws IOException {
+		BlockingQueue<List<T>> queue = new ArrayBlockingQueue<List<T>>(QUEUE_CAPACITY);
+		List<T> endOfItems = new ObjectArrayList<T>(0); //recognized by identity
+
+		FutureTask<Void> producer = startInBackground(() -> {
+			List<T> batch = new ObjectArrayList<T>(BATCH_SIZE);
+			T item;
+			while ((item = source.next()) != null) {
+				batch.add(item);
+				if (batch.size() == BATCH_SIZE) {
+					queue.put(batch); //waits while the queue is full
+					batch = new ObjectArrayList<T>(BATCH_SIZE);
+				}
+			}
+			if (!batch.isEmpty()) {
+				queue.put(batch);
+			}
+			queue.put(endOfItems);
+			return null;
+		}, threadName);
+
+		try {
+			while (true) {
+				List<T> batch = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				if (batch == null) {
+					if (producer.isDone() && queue.isEmpty()) { //producer has failed
+						break;
+					}
+				} else {
+					if (batch == endOfItems) {
+						break;
+					}
+					for (T item : batch) {
+						sink.accept(item);
+					}
+				} //else
+			} //while
+			getResult(producer); //throws exception thrown by the producer, if any
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Pipeline has been interrupted.");
+		} finally {
+			producer.cancel(true); //stops the producer if the sink has failed; no effect if the producer has finished
+		}
+	}
+
+	/**
+	 * Starts given consuming stage of a conversion, either in a new daemon thread, or in current thread (in which case each batch
+	 * is consumed when it is passed). Batches are consumed in the order in which they are passed.
+	 *
+	 * @param sink consuming stage
+	 * @param threadName name of the new thread
+	 * @param concurrently tells if the stage should be run concurrently with current thread
+	 * @param <T> type of consumed items
+	 * @return started stage, to which batches can be passed
+	 */
+	static <T> BatchSink<T> startSink(Sink<List<T>> sink, String threadName, boolean concurrently) {
+		return new BatchSink<T>(sink, threadName, concurrently);
+	}
+
+	/**
+	 * Starts given stage of a conversion, either in a new daemon thread, or in current thread (in which case the stage is completed when this method returns).
+	 *
+	 * @param stage stage to be run
+	 * @param threadName name of the new thread
+	 * @param concurrently tells if the stage should be run concurrently with current thread
+	 * @param <V> type of the result of the stage
+	 * @return started stage, whose result can be obtained by {@link #getResult(Future)}
+	 */
+	static <V> FutureTask<V> startStage(Callable<V> stage, String threadName, boolean concurrently) {
+		if (concurrently) {
+			return startInBackground(stage, threadName);
+		} else {
+			FutureTask<V> futureTask = new FutureTask<V>(stage);
+			futureTask.run();
+			return futureTask;
+		}
+	}
+
+	/**
+	 * Starts given task in a new daemon thread.
+	 *
+	 * @param task task to be run
+	 * @param threadName name of the new thread
+	 * @param <V> type of the result of the task
+	 * @return started task, whose result can be obtained by {@link #getResult(Future)}
+	 */
+	static <V> FutureTask<V> startInBackground(Callable<V> task, String threadName) {
+		FutureTask<V> futureTask = new FutureTask<V>(task);
+		Thread thread = new Thread(futureTask, threadName);
+		thread.setDaemon(true);
+		thread.start();
+		return futureTask;
+	}
+
+	/**
+	 * Waits for given stage after current thread has failed, so that the stage does not use resources released because of the failure,
+	 * and its own failure is not lost. Exception thrown by the stage is added as suppressed to given exception.
+	 * If current thread is interrupted, it stops waiting, and the stage is cancelled.
+	 *
+	 * @param future started stage
+	 * @param failure exception thrown by current thread
+	 */
+	static void awaitStage(Future<?> future, Throwable failure) {
+		try {
+			future.get();
+		} catch (InterruptedException exception) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException exception) {
+			if (exception.getCause() != failure) {
+				failure.addSuppressed(exception.getCause());
+			}
+		} catch (CancellationException exception) {
+			//stage has been cancelled, so it has not failed by itself
+		}
+	}
+
+	/**
+	 * Waits for given task and gets its result. Exception thrown by the task is rethrown in current thread.
+	 *
+	 * @param future started task
+	 * @param <V> type of the result of the task
+	 * @return result of the task
+	 *
+	 * @throws IOException if the task has thrown {@link IOException}, or current thread has been interrupted
+	 */
+	static <V> V getResult(Future<V> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Pipeline has been interrupted.");
+		} catch (ExecutionException exception) {
+			Throwable cause = exception.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException)cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException)cause;
+			} else if (cause instanceof Error) {
+				throw (Error)cause;
+			} else {
+				throw new IOException(cause);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,315 @@
+/**
+ * Copyright (C) Marcin Szeląg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rulelearn.converters;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.rulelearn.data.AttributePreferenceType;
+import org.rulelearn.types.ElementList;
+import org.rulelearn.types.EnumerationField;
+import org.rulelearn.types.EnumerationFieldFactory;
+import org.rulelearn.types.EvaluationField;
+import org.rulelearn.types.IntegerField;
+import org.rulelearn.types.IntegerFieldFactory;
+import org.rulelearn.types.RealField;
+import org.rulelearn.types.RealFieldFactory;
+
+/**
+ * Bounded cache of ruleLearn evaluation fields, owned by a single conversion.
+ * Replaces process-wide volatile caches of {@link org.rulelearn.types.IntegerFieldCachingFactory},
+ * {@link org.rulelearn.types.RealFieldCachingFactory}, and {@link org.rulelearn.types.EnumerationFieldCachingFactory},
+ * so that concurrent or subsequent conversions do not evict each other's fields.
+ * When the number of cached fields exceeds capacity of this cache, a field is evicted according to the {@link EvictionPolicy eviction policy}.
+ * Fields not found in this cache are created using non-caching field factories.<br>
+ * <br>
+ * All methods are synchronized, so the cache can be shared by threads taking part in the same conversion.
+ *
+ * @author Marcin Szeląg (<a href="mailto:marcin.szelag@cs.put.poznan.pl">marcin.szelag@cs.put.poznan.pl</a>)
+ */
+public class FieldCache {
+
+	/**
+	 * Policy used to choose field evicted from a full cache.
+	 */
+	public enum EvictionPolicy {
+		/**
+		 * Evicts least recently used field.
+		 */
+		LRU,
+		/**
+		 * Evicts field that has been cached first.
+		 */
+		FIFO
+	}
+
+	/**
+	 * Default maximum number of cached fields.
+	 */
+	public static final int DEFAULT_CAPACITY = 65536;
+
+	/**
+	 * Key of a cached field.
+	 *
+	 * @author Marcin Szeląg
+	 */
+	private static class FieldKey {
+		private static final int INTEGER = 0;
+		private static final int REAL = 1;
+		private static final int ENUMERATION = 2;
+
+		private int kind;
+		private long value;
+		private ElementList elementList;
+		private AttributePreferenceType preferenceType;
+
+		private FieldKey set(int kind, long value, ElementList elementList, AttributePreferenceType preferenceType) {
+			this.kind = kind;
+			this.value = value;
+			this.elementList = elementList;
+			this.preferenceType = preferenceType;
+			return this;
+		}
+
+		private FieldKey copy() {
+			return (new FieldKey()).set(kind, value, elementList, preferenceType);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof FieldKey)) {
+				return false;
+			}
+			FieldKey key = (FieldKey)other;
+			return kind == key.kind && value == key.value && preferenceType == key.preferenceType &&
+					(elementList == key.elementList || (elementList != null && elementList.equals(key.elementList)));
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = 31 * kind + Long.hashCode(value);
+			hash = 31 * hash + (preferenceType != null ? preferenceType.hashCode() : 0);
+			return 31 * hash + (elementList != null ? elementList.hashCode() : 0);
+		}
+	}
+
+	/**
+	 * Maximum number of cached fields.
+	 */
+	private int capacity;
+	/**
+	 * Eviction policy of this cache.
+	 */
+	private EvictionPolicy evictionPolicy;
+	/**
+	 * Cached fields.
+	 */
+	private Map<FieldKey, EvaluationField> fields;
+	/**
+	 * Key reused for lookups, so that no key is created when a field is found in this cache.
+	 */
+	private FieldKey lookupKey = new FieldKey();
+
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * Constructs cache with {@link #DEFAULT_CAPACITY default capacity} and {@link EvictionPolicy#LRU LRU} eviction policy.
+	 */
+	public FieldCache() {
+		this(DEFAULT_CAPACITY, EvictionPolicy.LRU);
+	}
+
+	/**
+	 * Constructs cache with given capacity and eviction policy.
+	 *
+	 * @param capacity maximum number of cached fields
+	 * @param evictionPolicy policy used to choose field evicted from a full cache
+	 *
+	 * @throws IllegalArgumentException if given capacity is not positive
+	 */
+	public FieldCache(int capacity, EvictionPolicy evictionPolicy) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity of field cache has to be positive.");
+		}
+		this.capacity = capacity;
+		this.evictionPolicy = evictionPolicy;
+		this.fields = new LinkedHashMap<FieldKey, EvaluationField>(Math.min(capacity, 1024), 0.75f, evictionPolicy == EvictionPolicy.LRU) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<FieldKey, EvaluationField> eldest) {
+				if (size() > FieldCache.this.capacity) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Gets integer field with given value and preference type.
+	 *
+	 * @param value value of the field
+	 * @param preferenceType preference type of the field
+	 * @return cached or newly created integer field
+	 */
+	public synchronized IntegerField getIntegerField(int value, AttributePreferenceType preferenceType) {
+		EvaluationField field = fields.get(lookupKey.set(FieldKey.INTEGER, value, null, preferenceType));
+		if (field == null) {
+			field = IntegerFieldFactory.getInstance().create(value, preferenceType);
+			cacheField(field);
+		} else {
+			hits++;
+		}
+		return (IntegerField)field;
+	}
+
+	/**
+	 * Gets real field with given value and preference type.
+	 *
+	 * @param value value of the field
+	 * @param preferenceType preference type of the field
+	 * @return cached or newly created real field
+	 */
+	public synchronized RealField getRealField(double value, AttributePreferenceType preferenceType) {
+		EvaluationField field = fields.get(lookupKey.set(FieldKey.REAL, Double.doubleToLongBits(value), null, preferenceType));
+		if (field == null) {
+			field = RealFieldFactory.getInstance().create(value, preferenceType);
+			cacheField(field);
+		} else {
+			hits++;
+		}
+		return (RealField)field;
+	}
+
+	/**
+	 * Gets enumeration field with given element list, index of element, and preference type.
+	 *
+	 * @param elementList list of elements of the enumeration
+	 * @param index index of the element
+	 * @param preferenceType preference type of the field
+	 * @return cached or newly created enumeration field
+	 */
+	public synchronized EnumerationField getEnumerationField(ElementList elementList, int index, AttributePreferenceType preferenceType) {
+		EvaluationField field = fields.get(lookupKey.set(FieldKey.ENUMERATION, index, elementList, preferenceType));
+		if (field == null) {
+			field = EnumerationFieldFactory.getInstance().create(elementList, index, preferenceType);
+			cacheField(field);
+		} else {
+			hits++;
+		}
+		return (EnumerationField)field;
+	}
+
+	/**
+	 * Caches given field under current {@link #lookupKey}.
+	 *
+	 * @param field field to be cached
+	 */
+	private void cacheField(EvaluationField field) {
+		misses++;
+		fields.put(lookupKey.copy(), field);
+	}
+
+	/**
+	 * Gets maximum number of cached fields.
+	 *
+	 * @return maximum number of cached fields
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Gets eviction policy of this cache.
+	 *
+	 * @return eviction policy of this cache
+	 */
+	public EvictionPolicy getEvictionPolicy() {
+		return evictionPolicy;
+	}
+
+	/**
+	 * Gets number of currently cached fields.
+	 *
+	 * @return number of currently cached fields
+	 */
+	public synchronized int size() {
+		return fields.size();
+	}
+
+	/**
+	 * Gets number of requests for which a field has been found in this cache.
+	 *
+	 * @return number of cache hits
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Gets number of requests for which a new field has been created.
+	 *
+	 * @return number of cache misses
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Gets number of fields evicted from this cache.
+	 *
+	 * @return number of evicted fields
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * Gets fraction of requests for which a field has been found in this cache.
+	 *
+	 * @return hit ratio, from the range [0, 1]; 0 if there were no requests
+	 */
+	public synchronized double getHitRatio() {
+		return hits + misses > 0 ? (double)hits / (hits + misses) : 0.0;
+	}
+
+	/**
+	 * Removes all cached fields and resets statistics of this cache.
+	 */
+	public synchronized void clear() {
+		fields.clear();
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+	}
+
+	/**
+	 * Gets statistics of this cache.
+	 *
+	 * @return statistics of this cache
+	 */
+	@Override
+	public synchronized String toString() {
+		return "Field cache (" + evictionPolicy + ", capacity " + capacity + "): size " + fields.size() + ", hits " + hits + ", misses " + misses +
+				", evictions " + evictions + ", hit ratio " + String.format("%.4f", getHitRatio());
+	}
+
+}
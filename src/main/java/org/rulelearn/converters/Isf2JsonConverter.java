@@ -16,19 +16,28 @@
 
 package org.rulelearn.converters;
 
-import java.io.FileWriter;
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
+import java.util.concurrent.Future;
 
 import org.rulelearn.core.InvalidValueException;
 import org.rulelearn.data.EvaluationAttribute;
 import org.rulelearn.data.InformationTable;
 import org.rulelearn.data.json.InformationTableWriter;
 import org.rulelearn.types.EnumerationField;
-import org.rulelearn.types.EnumerationFieldCachingFactory;
 import org.rulelearn.types.Field;
-import org.rulelearn.types.IntegerFieldCachingFactory;
-import org.rulelearn.types.RealFieldCachingFactory;
 
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import pl.poznan.put.cs.idss.jrs.core.SimpleParseLog;
@@ -50,99 +59,392 @@ import pl.poznan.put.cs.idss.jrs.utilities.ISFLoader;
 public class Isf2JsonConverter {
 	
 	/**
-	 * Converts information system file (ISF) to a pair of ruleLearn JSON files:
-	 * file with metadata (attributes) and file with data (objects from the information table).
+	 * Capacity of the {@link FieldCache field cache} created for each conversion.
+	 */
+	private int fieldCacheCapacity;
+	/**
+	 * Eviction policy of the {@link FieldCache field cache} created for each conversion.
+	 */
+	private FieldCache.EvictionPolicy fieldCacheEvictionPolicy;
+	/**
+	 * Tells if attributes are written concurrently with conversion of objects (see {@link #Isf2JsonConverter(int, FieldCache.EvictionPolicy, boolean)}).
+	 */
+	private boolean pipelined;
+	/**
+	 * Tells if statistics of field cache are printed after each conversion (see {@link #setPrintingFieldCacheStatistics(boolean)}).
+	 */
+	private boolean printingFieldCacheStatistics = false;
+	
+	/**
+	 * Constructs this converter, creating for each conversion a {@link FieldCache field cache} with {@link FieldCache#DEFAULT_CAPACITY default capacity}
+	 * and {@link FieldCache.EvictionPolicy#LRU LRU} eviction policy.
+	 */
+	public Isf2JsonConverter() {
+		this(FieldCache.DEFAULT_CAPACITY, FieldCache.EvictionPolicy.LRU);
+	}
+	
+	/**
+	 * Constructs this converter, creating for each conversion a {@link FieldCache field cache} with given capacity and eviction policy.
+	 * Each conversion has its own field cache, so concurrent conversions performed by this converter do not evict each other's fields.
+	 * 
+	 * @param fieldCacheCapacity maximum number of fields cached during a conversion
+	 * @param fieldCacheEvictionPolicy policy used to choose field evicted from a full field cache
+	 * 
+	 * @throws IllegalArgumentException if given capacity is not positive
+	 * @throws NullPointerException if given eviction policy is {@code null}
+	 */
+	public Isf2JsonConverter(int fieldCacheCapacity, FieldCache.EvictionPolicy fieldCacheEvictionPolicy) {
+		this(fieldCacheCapacity, fieldCacheEvictionPolicy, false);
+	}
+	
+	/**
+	 * Constructs this converter, creating for each conversion a {@link FieldCache field cache} with given capacity and eviction policy,
+	 * in pipelined or sequential mode.
+	 * In pipelined mode, JSON file with attributes is written in a separate thread, concurrently with conversion of objects.
+	 * As jRS {@link ISFLoader} loads the whole ISF file at once, and objects are written from the whole information table,
+	 * loading and writing of objects are not split into concurrent stages. Output files are the same as in sequential mode.
+	 * On a single-processor machine, sequential mode is used anyway.
+	 * 
+	 * @param fieldCacheCapacity maximum number of fields cached during a conversion
+	 * @param fieldCacheEvictionPolicy policy used to choose field evicted from a full field cache
+	 * @param pipelined tells if attributes should be written concurrently with conversion of objects
+	 * 
+	 * @throws IllegalArgumentException if given capacity is not positive
+	 * @throws NullPointerException if given eviction policy is {@code null}
+	 */
+	public Isf2JsonConverter(int fieldCacheCapacity, FieldCache.EvictionPolicy fieldCacheEvictionPolicy, boolean pipelined) {
+		if (fieldCacheCapacity <= 0) {
+			throw new IllegalArgumentException("Capacity of field cache has to be positive.");
+		}
+		if (fieldCacheEvictionPolicy == null) {
+			throw new NullPointerException("Eviction policy of field cache is null.");
+		}
+		this.fieldCacheCapacity = fieldCacheCapacity;
+		this.fieldCacheEvictionPolicy = fieldCacheEvictionPolicy;
+		this.pipelined = pipelined && Runtime.getRuntime().availableProcessors() > 1; //on a single processor, concurrent stages would only compete for it
+	}
+	
+	/**
+	 * Sets if statistics of the field cache of each conversion should be printed, using {@link OM}, after the conversion. By default, they are not printed.
+	 * 
+	 * @param printingFieldCacheStatistics tells if statistics of field cache should be printed after each conversion
+	 */
+	public void setPrintingFieldCacheStatistics(boolean printingFieldCacheStatistics) {
+		this.printingFieldCacheStatistics = printingFieldCacheStatistics;
+	}
+	
+	/**
+	 * Creates field cache for a single conversion.
+	 * 
+	 * @return new field cache, with capacity and eviction policy set for this converter
+	 */
+	private FieldCache createFieldCache() {
+		return new FieldCache(fieldCacheCapacity, fieldCacheEvictionPolicy);
+	}
+	
+	/**
+	 * Releases field cache of a finished (or failed) conversion: prints its statistics, if requested, and clears it.
+	 * 
+	 * @param fieldCache field cache of a conversion
+	 */
+	private void releaseFieldCache(FieldCache fieldCache) {
+		if (printingFieldCacheStatistics) {
+			OM.println(fieldCache.toString());
+		}
+		fieldCache.clear(); //fields are referenced by the information table, so cache is no longer needed
+	}
+	
+	/**
+	 * Converts information system file (ISF) to ruleLearn information table.
+	 * All fields are taken from a {@link FieldCache field cache} created for this conversion, which is cleared afterwards, also if conversion fails.
 	 * 
 	 * @param isfFilePath path to input ISF file containing information about attributes and objects
-	 * @param jsonAttributesFilePath path to output file where metadata (attributes) should be written in JSON format
-	 * @param jsonDataFilePath path to output file where data (objects) should be written in JSON format
-	 * @param prettyPrinting tells if pretty printing in the two output files should be applied
+	 * @return ruleLearn information table, or {@code null} if given ISF file could not be loaded
+	 * 
+	 * @throws InvalidValueException if any attribute has incorrect preference type or type (kind)
+	 * @throws UnsupportedOperationException if any jRS attribute has initial value of type other than integer, float, or enum
+	 */
+	InformationTable convertIsf2InformationTable(String isfFilePath) {
+		MemoryContainer memoryContainer = ISFLoader.loadISFIntoMemoryContainer(isfFilePath, new SimpleParseLog());
+		
+		if (memoryContainer == null) {
+			return null;
+		}
+		
+		FieldCache fieldCache = createFieldCache();
+		try {
+			EvaluationAttribute[] rLAttributes = (new jRSAttributes2rLAttributes(fieldCache)).convertJRSAttributes2rLAttributes(memoryContainer.getAttributes());
+			return convertObjects(memoryContainer, rLAttributes, fieldCache);
+		} finally {
+			releaseFieldCache(fieldCache);
+		}
+	}
+	
+	/**
+	 * Converts information system file (ISF) to ruleLearn information table, like {@link #convertIsf2InformationTable(String)},
+	 * and passes converted attributes to given attributes writer, run as a separate stage (see {@link BatchPipeline#startStage}).
+	 * Returns after attributes have been written. In pipelined mode, attributes writer is run concurrently with conversion of objects.
+	 * 
+	 * @param isfFilePath path to input ISF file containing information about attributes and objects
+	 * @param attributesWriter stage writing converted attributes
+	 * @return ruleLearn information table, or {@code null} if given ISF file could not be loaded
 	 * 
+	 * @throws IOException if attributes writer throws {@link IOException}
 	 * @throws InvalidValueException if any attribute has incorrect preference type or type (kind)
 	 * @throws UnsupportedOperationException if any jRS attribute has initial value of type other than integer, float, or enum
 	 */
-	void convertIsf2Json(String isfFilePath, String jsonAttributesFilePath, String jsonDataFilePath, boolean prettyPrinting) {
+	private InformationTable convertIsf2InformationTable(String isfFilePath, BatchPipeline.Sink<EvaluationAttribute[]> attributesWriter) throws IOException {
 		MemoryContainer memoryContainer = ISFLoader.loadISFIntoMemoryContainer(isfFilePath, new SimpleParseLog());
 		
-		if (memoryContainer != null) {
-			EvaluationAttribute[] rLAttributes = (new jRSAttributes2rLAttributes()).convertJRSAttributes2rLAttributes(memoryContainer.getAttributes());
+		if (memoryContainer == null) {
+			return null;
+		}
+		
+		FieldCache fieldCache = createFieldCache();
+		try {
+			EvaluationAttribute[] rLAttributes = (new jRSAttributes2rLAttributes(fieldCache)).convertJRSAttributes2rLAttributes(memoryContainer.getAttributes());
+			
+			Future<Void> attributesWritten = BatchPipeline.startStage(() -> {
+				attributesWriter.accept(rLAttributes);
+				return null;
+			}, "attributes-writer", pipelined);
 			
 			InformationTable informationTable;
-			Field[] row;
-			List<Field[]> rows = new ObjectArrayList<Field[]>();
-			pl.poznan.put.cs.idss.jrs.types.Field field;
+			try {
+				informationTable = convertObjects(memoryContainer, rLAttributes, fieldCache);
+			} catch (RuntimeException | Error exception) {
+				BatchPipeline.awaitStage(attributesWritten, exception);
+				throw exception;
+			}
+			BatchPipeline.getResult(attributesWritten);
 			
-			for (int i = 0; i < memoryContainer.size(); i++) {
-				row = new Field[memoryContainer.getAttributes().length];
-				for (int j = 0; j < row.length; j++) {
-					if ((field = memoryContainer.getExample(i).getField(j)) instanceof pl.poznan.put.cs.idss.jrs.types.IntegerField) {
+			return informationTable;
+		} finally {
+			releaseFieldCache(fieldCache);
+		}
+	}
+	
+	/**
+	 * Converts objects from given jRS memory container to ruleLearn information table.
+	 * 
+	 * @param memoryContainer jRS memory container with loaded ISF file
+	 * @param rLAttributes attributes converted from the attributes of given memory container
+	 * @param fieldCache field cache of current conversion
+	 * @return ruleLearn information table
+	 * 
+	 * @throws UnsupportedOperationException if any jRS field has value of type other than integer, float, or enum
+	 */
+	private InformationTable convertObjects(MemoryContainer memoryContainer, EvaluationAttribute[] rLAttributes, FieldCache fieldCache) {
+		Field[] row;
+		List<Field[]> rows = new ObjectArrayList<Field[]>();
+		pl.poznan.put.cs.idss.jrs.types.Field field;
+		
+		for (int i = 0; i < memoryContainer.size(); i++) {
+			row = new Field[memoryContainer.getAttributes().length];
+			for (int j = 0; j < row.length; j++) {
+				if ((field = memoryContainer.getExample(i).getField(j)) instanceof pl.poznan.put.cs.idss.jrs.types.IntegerField) {
+					try {
+						int value = ((pl.poznan.put.cs.idss.jrs.types.IntegerField)field).get();
+						row[j] = fieldCache.getIntegerField(value, rLAttributes[j].getPreferenceType());
+					} catch (UnknownValueException exception) {
+						row[j] = rLAttributes[j].getMissingValueType();
+					}
+					
+				} else {
+					if ((field = memoryContainer.getExample(i).getField(j)) instanceof pl.poznan.put.cs.idss.jrs.types.FloatField) {
 						try {
-							int value = ((pl.poznan.put.cs.idss.jrs.types.IntegerField)field).get();
-							row[j] = IntegerFieldCachingFactory.getInstance().create(
-									value, rLAttributes[j].getPreferenceType(), false); //use volatile cache
+							double value = ((pl.poznan.put.cs.idss.jrs.types.FloatField)field).get();
+							row[j] = fieldCache.getRealField(value, rLAttributes[j].getPreferenceType());
 						} catch (UnknownValueException exception) {
 							row[j] = rLAttributes[j].getMissingValueType();
 						}
-						
 					} else {
-						if ((field = memoryContainer.getExample(i).getField(j)) instanceof pl.poznan.put.cs.idss.jrs.types.FloatField) {
+						if ((field = memoryContainer.getExample(i).getField(j)) instanceof pl.poznan.put.cs.idss.jrs.types.EnumField) {
 							try {
-								double value = ((pl.poznan.put.cs.idss.jrs.types.FloatField)field).get();
-								row[j] = RealFieldCachingFactory.getInstance().create(
-										value, rLAttributes[j].getPreferenceType(), false); //use volatile cache
+								int index = ((pl.poznan.put.cs.idss.jrs.types.EnumField)field).getIndex();
+								row[j] = fieldCache.getEnumerationField(
+										((EnumerationField)rLAttributes[j].getValueType()).getElementList(),
+										index, rLAttributes[j].getPreferenceType());
 							} catch (UnknownValueException exception) {
 								row[j] = rLAttributes[j].getMissingValueType();
 							}
 						} else {
-							if ((field = memoryContainer.getExample(i).getField(j)) instanceof pl.poznan.put.cs.idss.jrs.types.EnumField) {
-								try {
-									int index = ((pl.poznan.put.cs.idss.jrs.types.EnumField)field).getIndex();
-									row[j] = EnumerationFieldCachingFactory.getInstance().create(
-											((EnumerationField)rLAttributes[j].getValueType()).getElementList(),
-											index, rLAttributes[j].getPreferenceType(), false); //use volatile cache
-								} catch (UnknownValueException exception) {
-									row[j] = rLAttributes[j].getMissingValueType();
-								}
-							} else {
-								//redundant check (verified above, when attributes have been converted), but added for clarity
-								throw new UnsupportedOperationException("Cannot process jRS field with value of type other than integer, float, or enum.");
-							} //else
+							//redundant check (verified above, when attributes have been converted), but added for clarity
+							throw new UnsupportedOperationException("Cannot process jRS field with value of type other than integer, float, or enum.");
 						} //else
 					} //else
-				} //for (j)
-				rows.add(row);
-			} //for (i)
-			
-			informationTable = new InformationTable(rLAttributes, rows, true); //accelerate by read only params
-			
-			VolatileCachesCleaner.clearVolatileCaches(rLAttributes); //clear volatile caches of all used evaluation field caching factories
-			
-			InformationTableWriter informationTableWriter = new InformationTableWriter(prettyPrinting);
-			OM.println("Pretty printing set to: " + prettyPrinting);
-			
-			try (FileWriter fileWriter = new FileWriter(jsonAttributesFilePath)) {
-				informationTableWriter.writeAttributes(informationTable, fileWriter);
-				OM.println("Attributes written to file " + jsonAttributesFilePath);
+				} //else
+			} //for (j)
+			rows.add(row);
+		} //for (i)
+		
+		return new InformationTable(rLAttributes, rows, true); //accelerate by read only params
+	}
+	
+	/**
+	 * Converts information system file (ISF), read from given input stream, to ruleLearn information table.
+	 * As jRS {@link ISFLoader} reads only files, given input stream is first copied to a temporary file, deleted after loading.
+	 * 
+	 * @param isfInputStream input stream with ISF file containing information about attributes and objects; read to its end, but not closed
+	 * @param attributesWriter stage writing converted attributes
+	 * @return ruleLearn information table, or {@code null} if read ISF file could not be loaded
+	 * 
+	 * @throws IOException if given input stream cannot be read, temporary file cannot be written, or attributes writer throws {@link IOException}
+	 * @throws InvalidValueException if any attribute has incorrect preference type or type (kind)
+	 * @throws UnsupportedOperationException if any jRS attribute has initial value of type other than integer, float, or enum
+	 */
+	InformationTable convertIsf2InformationTable(InputStream isfInputStream, BatchPipeline.Sink<EvaluationAttribute[]> attributesWriter) throws IOException {
+		Path temporaryIsfFile = Files.createTempFile("jRS2ruleLearn", ".isf");
+		try {
+			Files.copy(isfInputStream, temporaryIsfFile, StandardCopyOption.REPLACE_EXISTING);
+			return convertIsf2InformationTable(temporaryIsfFile.toString(), attributesWriter);
+		} finally {
+			Files.deleteIfExists(temporaryIsfFile);
+		}
+	}
+	
+	/**
+	 * Converts information system file (ISF), read from given input stream, to ruleLearn attributes (metadata) and objects in JSON format,
+	 * written to given writers. Attributes are written (and flushed) before objects.
+	 * 
+	 * @param isfInputStream input stream with ISF file containing information about attributes and objects; read to its end, but not closed
+	 * @param jsonAttributesWriter writer to which metadata (attributes) should be written in JSON format; flushed, but not closed
+	 * @param jsonDataWriter writer to which data (objects) should be written in JSON format; flushed, but not closed
+	 * @param prettyPrinting tells if pretty printing in JSON output should be applied
+	 * 
+	 * @throws IOException if given input stream cannot be read, read ISF file cannot be loaded, or any of given writers cannot be written
+	 * @throws InvalidValueException if any attribute has incorrect preference type or type (kind)
+	 * @throws UnsupportedOperationException if any jRS attribute has initial value of type other than integer, float, or enum
+	 */
+	public void convertIsf2Json(InputStream isfInputStream, Writer jsonAttributesWriter, Writer jsonDataWriter, boolean prettyPrinting) throws IOException {
+		InformationTable informationTable = convertIsf2InformationTable(isfInputStream, rLAttributes -> {
+			writeAttributes(rLAttributes, jsonAttributesWriter, prettyPrinting);
+			jsonAttributesWriter.flush();
+		});
+		if (informationTable == null) {
+			throw new IOException("ISF data could not be loaded.");
+		}
+		
+		(new InformationTableWriter(prettyPrinting)).writeObjects(informationTable, jsonDataWriter);
+		jsonDataWriter.flush();
+	}
+	
+	/**
+	 * Converts information system file (ISF), read from given input stream, to ruleLearn attributes (metadata) and objects in JSON format,
+	 * written to given output streams, like {@link #convertIsf2Json(InputStream, Writer, Writer, boolean)}. JSON is written in UTF-8 encoding.
+	 * 
+	 * @param isfInputStream input stream with ISF file (e.g., {@link System#in}); read to its end, but not closed
+	 * @param jsonAttributesOutputStream output stream to which metadata (attributes) should be written in JSON format; flushed, but not closed
+	 * @param jsonDataOutputStream output stream to which data (objects) should be written in JSON format; flushed, but not closed
+	 * @param prettyPrinting tells if pretty printing in JSON output should be applied
+	 * 
+	 * @throws IOException if given input stream cannot be read, read ISF file cannot be loaded, or any of given output streams cannot be written
+	 * @throws InvalidValueException if any attribute has incorrect preference type or type (kind)
+	 * @throws UnsupportedOperationException if any jRS attribute has initial value of type other than integer, float, or enum
+	 */
+	public void convertIsf2Json(InputStream isfInputStream, OutputStream jsonAttributesOutputStream, OutputStream jsonDataOutputStream, boolean prettyPrinting) throws IOException {
+		convertIsf2Json(isfInputStream, new BufferedWriter(new OutputStreamWriter(jsonAttributesOutputStream, StandardCharsets.UTF_8)),
+				new BufferedWriter(new OutputStreamWriter(jsonDataOutputStream, StandardCharsets.UTF_8)), prettyPrinting);
+	}
+	
+	/**
+	 * Converts information system file (ISF) to a pair of ruleLearn JSON files, like {@link #convertIsf2Json(String, String, String, boolean)},
+	 * but any of the paths may be {@link StandardStreams#STANDARD_STREAM_PATH}, denoting standard input or standard output.
+	 * Standard streams are not closed. Only one of the outputs can be written to standard output.
+	 * 
+	 * @param isfFilePath path to input ISF file, or "-" for standard input
+	 * @param jsonAttributesFilePath path to output file where metadata (attributes) should be written in JSON format, or "-" for standard output
+	 * @param jsonDataFilePath path to output file where data (objects) should be written in JSON format, or "-" for standard output
+	 * @param prettyPrinting tells if pretty printing in JSON output should be applied
+	 * @param standardOutput standard output, as returned by {@link StandardStreams#reserveStandardOutput()}
+	 * @return {@code true} if both outputs have been written, {@code false} otherwise
+	 * 
+	 * @throws InvalidValueException if any attribute has incorrect preference type or type (kind)
+	 * @throws UnsupportedOperationException if any jRS attribute has initial value of type other than integer, float, or enum
+	 */
+	boolean convertIsf2Json(String isfFilePath, String jsonAttributesFilePath, String jsonDataFilePath, boolean prettyPrinting, PrintStream standardOutput) {
+		if (StandardStreams.isStandardStream(jsonAttributesFilePath) && StandardStreams.isStandardStream(jsonDataFilePath)) {
+			OM.println("Only one of the output files can be written to standard output.");
+			return false;
+		}
+		try (InputStream isfInputStream = StandardStreams.openInputStream(isfFilePath);
+				OutputStream jsonAttributesOutputStream = StandardStreams.openOutputStream(jsonAttributesFilePath, standardOutput);
+				OutputStream jsonDataOutputStream = StandardStreams.openOutputStream(jsonDataFilePath, standardOutput)) {
+			convertIsf2Json(isfInputStream, jsonAttributesOutputStream, jsonDataOutputStream, prettyPrinting);
+			return true;
+		}
+		catch (FileNotFoundException exception) {
+			OM.println(exception.toString());
+		}
+		catch (IOException ex) {
+			OM.println(ex.toString());
+		}
+		return false;
+	}
+	
+	/**
+	 * Converts information system file (ISF) to a pair of ruleLearn JSON files:
+	 * file with metadata (attributes) and file with data (objects from the information table).
+	 * If metadata cannot be written, data are not written either.
+	 * 
+	 * @param isfFilePath path to input ISF file containing information about attributes and objects
+	 * @param jsonAttributesFilePath path to output file where metadata (attributes) should be written in JSON format
+	 * @param jsonDataFilePath path to output file where data (objects) should be written in JSON format
+	 * @param prettyPrinting tells if pretty printing in the two output files should be applied
+	 * @return {@code true} if both output files have been written, {@code false} otherwise
+	 * 
+	 * @throws InvalidValueException if any attribute has incorrect preference type or type (kind)
+	 * @throws UnsupportedOperationException if any jRS attribute has initial value of type other than integer, float, or enum
+	 */
+	boolean convertIsf2Json(String isfFilePath, String jsonAttributesFilePath, String jsonDataFilePath, boolean prettyPrinting) {
+		try {
+			InformationTable informationTable = convertIsf2InformationTable(isfFilePath, rLAttributes -> {
+				OM.println("Pretty printing set to: " + prettyPrinting);
 				
+				try (Writer fileWriter = new OutputStreamWriter(new FileOutputStream(jsonAttributesFilePath), StandardCharsets.UTF_8)) {
+					writeAttributes(rLAttributes, fileWriter, prettyPrinting);
+				}
+				OM.println("Attributes written to file " + jsonAttributesFilePath);
+			});
+			
+			if (informationTable == null) {
+				return false;
 			}
-			catch (IOException ex) {
-				OM.println(ex.toString());
-			}
-			try (FileWriter fileWriter = new FileWriter(jsonDataFilePath)) {
-				informationTableWriter.writeObjects(informationTable, fileWriter);
-				OM.println("Objects written to file " + jsonDataFilePath);
-			}
-			catch (IOException ex) {
-				OM.println(ex.toString());
+			
+			try (Writer fileWriter = new OutputStreamWriter(new FileOutputStream(jsonDataFilePath), StandardCharsets.UTF_8)) {
+				(new InformationTableWriter(prettyPrinting)).writeObjects(informationTable, fileWriter);
 			}
-		} //if
+			OM.println("Objects written to file " + jsonDataFilePath);
+			
+			return true;
+		}
+		catch (IOException ex) {
+			OM.println(ex.toString());
+		}
+		return false;
+	}
+	
+	/**
+	 * Writes given attributes (metadata) to given writer, in JSON format.
+	 * 
+	 * @param rLAttributes ruleLearn attributes
+	 * @param jsonAttributesWriter writer to which metadata (attributes) should be written in JSON format
+	 * @param prettyPrinting tells if pretty printing should be applied
+	 * 
+	 * @throws IOException if given writer cannot be written
+	 */
+	private static void writeAttributes(EvaluationAttribute[] rLAttributes, Writer jsonAttributesWriter, boolean prettyPrinting) throws IOException {
+		InformationTable informationTable = new InformationTable(rLAttributes, new ObjectArrayList<Field[]>(), true); //empty list of rows (i.e., no objects!)
+		(new InformationTableWriter(prettyPrinting)).writeAttributes(informationTable, jsonAttributesWriter);
 	}
 	
 	/**
 	 * Application entry point.
 	 * 
 	 * @param args input arguments of this converter.
-	 *        Syntax: Isf2JsonConverter <ISF-file-path> <JSON-attributes-file-path> <JSON-data-file-path> <use-pretty-printing>
+	 *        Syntax: Isf2JsonConverter <ISF-file-path> <JSON-attributes-file-path> <JSON-data-file-path> <use-pretty-printing>,
+	 *        where "-" may be given instead of the path to ISF file (standard input), and instead of one of the paths to output files (standard output);
+	 *        if the last argument is "pipelined", conversion is run in pipelined mode (see {@link #Isf2JsonConverter(int, FieldCache.EvictionPolicy, boolean)})
 	 * @throws UnsupportedOperationException when data cannot be converted from jRS ISF file to a pair of ruleLearn JSON files
 	 */
 	public static void main(String[] args) {
@@ -151,22 +453,39 @@ public class Isf2JsonConverter {
 		//- only EvaluationAttribute attributes are produced
 		//- missing value type of produced attributes is set to UnknownSimpleFieldMV2
 		
+		boolean pipelined = args.length > 3 && args[args.length - 1].strip().equalsIgnoreCase("pipelined");
+		int argsCount = pipelined ? args.length - 1 : args.length;
+		boolean usesStandardOutput = argsCount >= 3 && (StandardStreams.isStandardStream(args[1]) || StandardStreams.isStandardStream(args[2]));
+		PrintStream standardOutput = usesStandardOutput ? StandardStreams.reserveStandardOutput() : System.out; //if converted data go to standard output, messages go to standard error
+		
 		//set system console as default message output
 		SystemOut systemOut = new SystemOut();
 		OM.addOutput(systemOut);
 		OM.setDefaultOutput(systemOut.getKey());
 		
-		if (args.length < 3) {
+		if (argsCount < 3) {
 			OM.println("Wrong number of parameters.");
 			OM.println("Syntax:");
-			OM.println("Isf2JsonConverter <ISF-file-path> <JSON-attributes-file-path> <JSON-data-file-path> <pretty>");
+			OM.println("Isf2JsonConverter <ISF-file-path> <JSON-attributes-file-path> <JSON-data-file-path> <pretty> [pipelined]");
+			OM.println("Use - instead of the ISF file path to read from standard input, or instead of one of the output file paths to write to standard output.");
 			OM.println("Example:");
 			OM.println("Isf2JsonConverter GermanCredit.isf GermanCredit.meta.json GermanCredit.data.json pretty");
 			return;
 		}
+		if (StandardStreams.isStandardStream(args[1]) && StandardStreams.isStandardStream(args[2])) {
+			OM.println("Only one of the output files can be written to standard output.");
+			return;
+		}
 		
-		Isf2JsonConverter isf2JsonConverter = new Isf2JsonConverter();
-		isf2JsonConverter.convertIsf2Json(args[0], args[1], args[2], args.length > 3 && args[3].strip().equalsIgnoreCase("pretty"));
+		Isf2JsonConverter isf2JsonConverter = new Isf2JsonConverter(FieldCache.DEFAULT_CAPACITY, FieldCache.EvictionPolicy.LRU, pipelined);
+		isf2JsonConverter.setPrintingFieldCacheStatistics(true);
+		boolean prettyPrinting = argsCount > 3 && args[3].strip().equalsIgnoreCase("pretty");
+		
+		if (StandardStreams.isStandardStream(args[0]) || usesStandardOutput) {
+			isf2JsonConverter.convertIsf2Json(args[0], args[1], args[2], prettyPrinting, standardOutput);
+		} else {
+			isf2JsonConverter.convertIsf2Json(args[0], args[1], args[2], prettyPrinting);
+		}
 	}
 	
 }
@@ -0,0 +1,611 @@
+/**
+ * Copyright (C) Marcin Szeląg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rulelearn.converters;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.rulelearn.converters.RuleIndex.ThresholdType;
+import org.rulelearn.core.InvalidValueException;
+import org.rulelearn.core.UnknownValueException;
+import org.rulelearn.data.Attribute;
+import org.rulelearn.data.AttributePreferenceType;
+import org.rulelearn.data.EvaluationAttribute;
+import org.rulelearn.data.InformationTable;
+import org.rulelearn.rules.Condition;
+import org.rulelearn.rules.Rule;
+import org.rulelearn.rules.RuleCharacteristics;
+import org.rulelearn.rules.RuleSetWithCharacteristics;
+import org.rulelearn.types.ElementList;
+import org.rulelearn.types.EnumerationField;
+import org.rulelearn.types.EvaluationField;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import pl.poznan.put.cs.idss.jrs.output.OM;
+import pl.poznan.put.cs.idss.jrs.output.SystemOut;
+
+/**
+ * Verifies characteristics of rules converted from a jRS *.rules file (see {@link Rules2RuleMLConverter#convertRuleStatistics2RuleCharacteristics})
+ * against an information table converted from the ISF file from which the rules have been induced (see {@link Isf2JsonConverter}).
+ * Support, coverage, negative coverage, and confidence of each rule are recomputed and compared with the stored ones.<br>
+ * <br>
+ * For each condition (attribute, relation, threshold), a bitset of covered objects is built using objects sorted by evaluation on the respective attribute.
+ * Then, for each rule, bitsets of its conditions are ANDed word by word, and the number of set bits gives coverage of the rule
+ * (and, after ANDing with the bitset of its decision, support of the rule). Rules are processed in parallel.<br>
+ * <br>
+ * Bitsets of conditions shared by several rules (including decisions) are built once and cached, starting from the most frequent ones,
+ * as long as the total size of cached bitsets does not exceed given limit (see {@link #RuleCharacteristicsVerifier(InformationTable, long)}).
+ * Bitsets of other conditions are built when needed, in a buffer of the processing thread, and then discarded.
+ * Hence, memory used by bitsets is bounded by the limit plus two bitsets, i.e., 2 &times; (number of objects) / 8 bytes, per thread.
+ * Verification of a rule costs O(conditions &times; number of objects / 64), plus building bitsets of its conditions that are not cached,
+ * which costs O(number of objects) for each such condition.<br>
+ * <br>
+ * Conditions are evaluated as in {@link RuleIndex}, i.e., missing evaluation satisfies each condition, as for {@link org.rulelearn.types.UnknownSimpleFieldMV2}.
+ * Conditions "at least" and "at most" concerning an attribute without preference, which {@link RuleIndex} does not store, are evaluated by the conditions themselves.
+ *
+ * @author Marcin Szeląg (<a href="mailto:marcin.szelag@cs.put.poznan.pl">marcin.szelag@cs.put.poznan.pl</a>)
+ */
+public class RuleCharacteristicsVerifier {
+
+	/**
+	 * Tolerance used when comparing confidence values.
+	 */
+	static final double CONFIDENCE_TOLERANCE = 1e-9;
+	/**
+	 * Default limit of the total size of cached bitsets, in bytes (64 MB).
+	 */
+	static final long DEFAULT_CACHE_SIZE = 64L << 20;
+
+	/**
+	 * Key of a cached bitset: attribute, kind of constraint, and threshold.
+	 *
+	 * @author Marcin Szeląg
+	 */
+	private static class ConditionKey {
+		private int attributeIndex;
+		private ThresholdType thresholdType;
+		private double threshold;
+
+		private ConditionKey(int attributeIndex, ThresholdType thresholdType, double threshold) {
+			this.attributeIndex = attributeIndex;
+			this.thresholdType = thresholdType;
+			this.threshold = threshold;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof ConditionKey)) {
+				return false;
+			}
+			ConditionKey key = (ConditionKey)other;
+			return attributeIndex == key.attributeIndex && thresholdType == key.thresholdType && Double.compare(threshold, key.threshold) == 0;
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 * attributeIndex + thresholdType.ordinal()) * 31 + Double.hashCode(threshold);
+		}
+	}
+
+	/**
+	 * Indices of objects with known evaluations, sorted by evaluation, for each attribute.
+	 */
+	private int[][] sortedObjects;
+	/**
+	 * Known evaluations, sorted in ascending order, for each attribute; parallel to {@link #sortedObjects}.
+	 */
+	private double[][] sortedEvaluations;
+	/**
+	 * Bitsets of objects with missing evaluation, for each attribute.
+	 */
+	private long[][] missingBitSets;
+	/**
+	 * Preference types of attributes.
+	 */
+	private AttributePreferenceType[] preferenceTypes;
+	/**
+	 * Information table against which rules are verified.
+	 */
+	private InformationTable informationTable;
+	/**
+	 * Number of objects in the information table.
+	 */
+	private int objectsCount;
+	/**
+	 * Number of 64-bit words in each bitset.
+	 */
+	private int wordsCount;
+	/**
+	 * Maximum number of cached bitsets.
+	 */
+	private int maxCachedBitSetsCount;
+
+	/**
+	 * Constructs this verifier for given information table, with {@link #DEFAULT_CACHE_SIZE default limit} of the total size of cached bitsets.
+	 *
+	 * @param informationTable information table converted from the ISF file from which verified rules have been induced
+	 */
+	public RuleCharacteristicsVerifier(InformationTable informationTable) {
+		this(informationTable, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Constructs this verifier for given information table.
+	 *
+	 * @param informationTable information table converted from the ISF file from which verified rules have been induced
+	 * @param cacheSize limit of the total size of cached bitsets of conditions shared by several rules, in bytes; if zero, no bitset is cached
+	 */
+	public RuleCharacteristicsVerifier(InformationTable informationTable, long cacheSize) {
+		Attribute[] attributes = informationTable.getAttributes();
+		this.informationTable = informationTable;
+		objectsCount = informationTable.getNumberOfObjects();
+		wordsCount = (objectsCount + 63) >>> 6;
+
+		double[][] evaluations = new double[attributes.length][objectsCount]; //numeric evaluations (see RuleIndex.getNumericValue), indexed by attribute index and object index
+		sortedObjects = new int[attributes.length][];
+		sortedEvaluations = new double[attributes.length][];
+		missingBitSets = new long[attributes.length][wordsCount];
+		preferenceTypes = new AttributePreferenceType[attributes.length];
+		maxCachedBitSetsCount = (int)Math.min(Integer.MAX_VALUE, cacheSize / (8L * Math.max(wordsCount, 1)));
+
+		IntStream.range(0, attributes.length).parallel().forEach(i -> {
+			preferenceTypes[i] = attributes[i] instanceof EvaluationAttribute ? ((EvaluationAttribute)attributes[i]).getPreferenceType() : AttributePreferenceType.NONE;
+
+			int knownCount = 0;
+			for (int objectIndex = 0; objectIndex < objectsCount; objectIndex++) {
+				evaluations[i][objectIndex] = RuleIndex.getNumericValue(informationTable.getField(objectIndex, i));
+				if (Double.isNaN(evaluations[i][objectIndex])) {
+					missingBitSets[i][objectIndex >>> 6] |= 1L << objectIndex;
+				} else {
+					knownCount++;
+				}
+			}
+
+			int[] objects = new int[knownCount];
+			int k = 0;
+			for (int objectIndex = 0; objectIndex < objectsCount; objectIndex++) {
+				if (!Double.isNaN(evaluations[i][objectIndex])) {
+					objects[k++] = objectIndex;
+				}
+			}
+			double[] column = evaluations[i];
+			IntArrays.mergeSort(objects, (x, y) -> Double.compare(column[x], column[y]));
+
+			sortedObjects[i] = objects;
+			sortedEvaluations[i] = new double[knownCount];
+			for (k = 0; k < knownCount; k++) {
+				sortedEvaluations[i][k] = column[objects[k]];
+			}
+		});
+	}
+
+	/**
+	 * Gets key of given condition.
+	 *
+	 * @param condition ruleLearn condition
+	 * @return key of given condition, or {@code null} if the condition does not impose a bound in the order of numbers
+	 *         (see {@link RuleIndex#getThresholdType(Condition, AttributePreferenceType)})
+	 */
+	private ConditionKey getConditionKey(Condition<? extends EvaluationField> condition) {
+		int attributeIndex = condition.getAttributeWithContext().getAttributeIndex();
+		ThresholdType thresholdType = RuleIndex.getThresholdType(condition, preferenceTypes[attributeIndex]);
+		return thresholdType != null ? new ConditionKey(attributeIndex, thresholdType, RuleIndex.getNumericValue(condition.getLimitingEvaluation())) : null;
+	}
+
+	/**
+	 * Gets mask of the last 64-bit word of a bitset concerning given number of objects, i.e., word whose bits corresponding to existing objects are set.
+	 *
+	 * @param objectsCount number of objects
+	 * @return mask of the last word of a bitset
+	 */
+	static long getLastWordMask(int objectsCount) {
+		return (objectsCount & 63) != 0 ? (1L << (objectsCount & 63)) - 1 : -1L;
+	}
+
+	/**
+	 * Gets bitset of objects covered by given condition. If that bitset is not cached, it is computed in given buffer.
+	 *
+	 * @param condition ruleLearn condition
+	 * @param cachedBitSets cached bitsets of conditions
+	 * @param buffer bitset to be filled if bitset of given condition is not cached
+	 * @return bitset of covered objects (cached one or given buffer); the array should not be modified
+	 */
+	private long[] getBitSet(Condition<? extends EvaluationField> condition, Map<ConditionKey, long[]> cachedBitSets, long[] buffer) {
+		ConditionKey key = getConditionKey(condition);
+		if (key == null) {
+			return computeBitSet(condition, buffer);
+		}
+		long[] bitSet = cachedBitSets.get(key);
+		return bitSet != null ? bitSet : computeBitSet(key, buffer);
+	}
+
+	/**
+	 * Computes bitset of objects covered by given condition, by checking the condition for each object.
+	 *
+	 * @param condition ruleLearn condition
+	 * @param bitSet bitset to be filled
+	 * @return given bitset
+	 */
+	private long[] computeBitSet(Condition<? extends EvaluationField> condition, long[] bitSet) {
+		Arrays.fill(bitSet, 0L);
+		for (int objectIndex = 0; objectIndex < objectsCount; objectIndex++) {
+			if (condition.satisfiedBy(objectIndex, informationTable)) {
+				bitSet[objectIndex >>> 6] |= 1L << objectIndex;
+			}
+		}
+		return bitSet;
+	}
+
+	/**
+	 * Computes bitset of objects covered by condition with given key. Only the range of objects sorted by evaluation that satisfy the condition is visited.
+	 *
+	 * @param key key of a condition
+	 * @param bitSet bitset to be filled
+	 * @return given bitset
+	 */
+	private long[] computeBitSet(ConditionKey key, long[] bitSet) {
+		System.arraycopy(missingBitSets[key.attributeIndex], 0, bitSet, 0, wordsCount); //missing evaluation satisfies the condition
+		double[] values = sortedEvaluations[key.attributeIndex];
+		int from;
+		int to;
+
+		switch (key.thresholdType) {
+		case LOWER_BOUND:
+			from = RuleIndexMatcher.firstNotLess(values, key.threshold);
+			to = values.length;
+			break;
+		case UPPER_BOUND:
+			from = 0;
+			to = RuleIndexMatcher.firstGreater(values, key.threshold);
+			break;
+		default:
+			from = RuleIndexMatcher.firstNotLess(values, key.threshold);
+			to = RuleIndexMatcher.firstGreater(values, key.threshold);
+		}
+
+		int[] objects = sortedObjects[key.attributeIndex];
+		for (int k = from; k < to; k++) {
+			bitSet[objects[k] >>> 6] |= 1L << objects[k];
+		}
+
+		return bitSet;
+	}
+
+	/**
+	 * Computes bitsets of conditions (including decisions) used by more than one of given rules. Bitsets of the most frequent conditions are computed first,
+	 * until {@link #maxCachedBitSetsCount} is reached.
+	 *
+	 * @param ruleSet verified rules
+	 * @return bitsets of shared conditions
+	 */
+	private Map<ConditionKey, long[]> computeSharedBitSets(RuleSetWithCharacteristics ruleSet) {
+		Object2IntOpenHashMap<ConditionKey> usageCounts = new Object2IntOpenHashMap<ConditionKey>();
+		for (int ruleId = 0; ruleId < ruleSet.size(); ruleId++) {
+			Rule rule = ruleSet.getRule(ruleId);
+			for (Condition<? extends EvaluationField> condition : rule.getConditions()) {
+				ConditionKey key = getConditionKey(condition);
+				if (key != null) {
+					usageCounts.addTo(key, 1);
+				}
+			}
+			ConditionKey key = getConditionKey(rule.getDecision());
+			if (key != null) {
+				usageCounts.addTo(key, 1);
+			}
+		}
+
+		List<ConditionKey> sharedKeys = new ObjectArrayList<ConditionKey>();
+		for (Object2IntMap.Entry<ConditionKey> entry : usageCounts.object2IntEntrySet()) {
+			if (entry.getIntValue() > 1) {
+				sharedKeys.add(entry.getKey());
+			}
+		}
+		sharedKeys.sort((x, y) -> Integer.compare(usageCounts.getInt(y), usageCounts.getInt(x)));
+		List<ConditionKey> cachedKeys = sharedKeys.subList(0, Math.min(sharedKeys.size(), maxCachedBitSetsCount));
+
+		long[][] bitSets = new long[cachedKeys.size()][];
+		IntStream.range(0, bitSets.length).parallel().forEach(i -> bitSets[i] = computeBitSet(cachedKeys.get(i), new long[wordsCount]));
+
+		Map<ConditionKey, long[]> cachedBitSets = new Object2ObjectOpenHashMap<ConditionKey, long[]>(bitSets.length);
+		for (int i = 0; i < bitSets.length; i++) {
+			cachedBitSets.put(cachedKeys.get(i), bitSets[i]);
+		}
+		return cachedBitSets;
+	}
+
+	/**
+	 * Computes coverage and support of given rules.
+	 *
+	 * @param ruleSet verified rules
+	 * @return array with two rows: coverage of each rule (i.e., number of objects covered by its conditions),
+	 *         and support of each rule (i.e., number of covered objects that also satisfy its decision)
+	 */
+	public int[][] computeCoverageAndSupport(RuleSetWithCharacteristics ruleSet) {
+		int rulesCount = ruleSet.size();
+		int[] coverages = new int[rulesCount];
+		int[] supports = new int[rulesCount];
+		Map<ConditionKey, long[]> cachedBitSets = computeSharedBitSets(ruleSet);
+		ThreadLocal<long[][]> buffers = ThreadLocal.withInitial(() -> new long[][] {new long[wordsCount], new long[wordsCount]}); //covered objects, and bitset of a not cached condition
+		long lastWordMask = getLastWordMask(objectsCount);
+
+		IntStream.range(0, rulesCount).parallel().forEach(ruleId -> {
+			Rule rule = ruleSet.getRule(ruleId);
+			long[][] threadBuffers = buffers.get();
+			long[] coveredBitSet = threadBuffers[0];
+
+			Arrays.fill(coveredBitSet, -1L);
+			if (wordsCount > 0) {
+				coveredBitSet[wordsCount - 1] = lastWordMask;
+			}
+			for (Condition<? extends EvaluationField> condition : rule.getConditions()) {
+				long[] conditionBitSet = getBitSet(condition, cachedBitSets, threadBuffers[1]);
+				for (int w = 0; w < wordsCount; w++) {
+					coveredBitSet[w] &= conditionBitSet[w];
+				}
+			}
+			long[] decisionBitSet = getBitSet(rule.getDecision(), cachedBitSets, threadBuffers[1]);
+
+			int coverage = 0;
+			int support = 0;
+			for (int w = 0; w < wordsCount; w++) {
+				coverage += Long.bitCount(coveredBitSet[w]);
+				support += Long.bitCount(coveredBitSet[w] & decisionBitSet[w]);
+			}
+
+			coverages[ruleId] = coverage;
+			supports[ruleId] = support;
+		});
+
+		return new int[][] {coverages, supports};
+	}
+
+	/**
+	 * Verifies characteristics of given rules. Only characteristics stored for a rule are compared.
+	 * Rules are identified in descriptions of differences by their positions in given rule set (starting from 1).
+	 *
+	 * @param ruleSet rules along with their characteristics
+	 * @return descriptions of found differences, one per rule with at least one difference; empty list if all characteristics are correct
+	 */
+	public List<String> verify(RuleSetWithCharacteristics ruleSet) {
+		int[] ruleNumbers = new int[ruleSet.size()];
+		for (int ruleId = 0; ruleId < ruleNumbers.length; ruleId++) {
+			ruleNumbers[ruleId] = ruleId + 1;
+		}
+		return verify(ruleSet, ruleNumbers);
+	}
+
+	/**
+	 * Verifies characteristics of given rules. Only characteristics stored for a rule are compared.
+	 *
+	 * @param ruleSet rules along with their characteristics
+	 * @param ruleNumbers numbers identifying the rules in descriptions of differences (e.g., numbers of the rules in *.rules file),
+	 *        in the order of the rules in given rule set
+	 * @return descriptions of found differences, one per rule with at least one difference; empty list if all characteristics are correct
+	 *
+	 * @throws InvalidValueException if the number of rule numbers is different than the number of rules
+	 */
+	public List<String> verify(RuleSetWithCharacteristics ruleSet, int[] ruleNumbers) {
+		if (ruleNumbers.length != ruleSet.size()) {
+			throw new InvalidValueException("Number of rule numbers is different than number of rules.");
+		}
+
+		int[][] coverageAndSupport = computeCoverageAndSupport(ruleSet);
+		List<String> differences = new ObjectArrayList<String>();
+
+		for (int ruleId = 0; ruleId < ruleSet.size(); ruleId++) {
+			RuleCharacteristics ruleCharacteristics = ruleSet.getRuleCharacteristics(ruleId);
+			int coverage = coverageAndSupport[0][ruleId];
+			int support = coverageAndSupport[1][ruleId];
+			StringBuilder difference = new StringBuilder();
+
+			try {
+				if (ruleCharacteristics.getSupport() != support) {
+					difference.append(" support: ").append(ruleCharacteristics.getSupport()).append(" vs ").append(support).append(';');
+				}
+			} catch (UnknownValueException exception) {
+				//support not stored
+			}
+			try {
+				if (ruleCharacteristics.getCoverage() != coverage) {
+					difference.append(" coverage: ").append(ruleCharacteristics.getCoverage()).append(" vs ").append(coverage).append(';');
+				}
+			} catch (UnknownValueException exception) {
+				//coverage not stored
+			}
+			try {
+				if (ruleCharacteristics.getNegativeCoverage() != coverage - support) {
+					difference.append(" negative coverage: ").append(ruleCharacteristics.getNegativeCoverage()).append(" vs ").append(coverage - support).append(';');
+				}
+			} catch (UnknownValueException exception) {
+				//negative coverage not stored
+			}
+			try {
+				double confidence = coverage > 0 ? (double)support / coverage : 0.0;
+				if (Math.abs(ruleCharacteristics.getConfidence() - confidence) > CONFIDENCE_TOLERANCE) {
+					difference.append(" confidence: ").append(ruleCharacteristics.getConfidence()).append(" vs ").append(confidence).append(';');
+				}
+			} catch (UnknownValueException exception) {
+				//confidence not stored
+			}
+
+			if (difference.length() > 0) {
+				differences.add("Rule " + ruleNumbers[ruleId] + " (stored vs recomputed):" + difference);
+			}
+		}
+
+		return differences;
+	}
+
+	/**
+	 * Checks if attributes of rules are the same as attributes of the information table against which the rules are verified,
+	 * i.e., if attributes at each position have the same name, value type, and preference type.
+	 *
+	 * @param rulesAttributes attributes of rules
+	 * @param dataAttributes attributes of the information table
+	 *
+	 * @throws InvalidValueException if attributes differ
+	 */
+	static void checkSameAttributes(Attribute[] rulesAttributes, Attribute[] dataAttributes) {
+		if (rulesAttributes.length != dataAttributes.length) {
+			throw new InvalidValueException("Rules have " + rulesAttributes.length + " attributes while data have " + dataAttributes.length + " attributes.");
+		}
+		for (int i = 0; i < rulesAttributes.length; i++) {
+			String difference = null;
+			if (!rulesAttributes[i].getName().equals(dataAttributes[i].getName())) {
+				difference = "name";
+			} else if (!(rulesAttributes[i] instanceof EvaluationAttribute) || !(dataAttributes[i] instanceof EvaluationAttribute)) {
+				if (rulesAttributes[i] instanceof EvaluationAttribute || dataAttributes[i] instanceof EvaluationAttribute) {
+					difference = "kind";
+				}
+			} else {
+				EvaluationAttribute rulesAttribute = (EvaluationAttribute)rulesAttributes[i];
+				EvaluationAttribute dataAttribute = (EvaluationAttribute)dataAttributes[i];
+				if (!haveSameValueType(rulesAttribute.getValueType(), dataAttribute.getValueType())) {
+					difference = "value type";
+				} else if (rulesAttribute.getPreferenceType() != dataAttribute.getPreferenceType()) {
+					difference = "preference type";
+				}
+			}
+			if (difference != null) {
+				throw new InvalidValueException("Attribute " + (i + 1) + " of rules (" + rulesAttributes[i].getName() + ") and attribute " + (i + 1) + " of data ("
+						+ dataAttributes[i].getName() + ") have different " + difference + ".");
+			}
+		}
+	}
+
+	/**
+	 * Tells if given value types of attributes are the same, i.e., are of the same class and, for enumerations, have the same elements in the same order.
+	 *
+	 * @param valueType value type of the first attribute
+	 * @param otherValueType value type of the second attribute
+	 * @return {@code true} if given value types are the same, {@code false} otherwise
+	 */
+	private static boolean haveSameValueType(EvaluationField valueType, EvaluationField otherValueType) {
+		if (valueType.getClass() != otherValueType.getClass()) {
+			return false;
+		}
+		if (valueType instanceof EnumerationField) {
+			ElementList elementList = ((EnumerationField)valueType).getElementList();
+			ElementList otherElementList = ((EnumerationField)otherValueType).getElementList();
+			if (elementList.getSize() != otherElementList.getSize()) {
+				return false;
+			}
+			for (int i = 0; i < elementList.getSize(); i++) {
+				if (!elementList.getElement(i).equals(otherElementList.getElement(i))) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Converts given *.rules file and ISF file, and verifies characteristics of converted rules against converted information table.
+	 *
+	 * @param rulesFilePath path to *.rules file
+	 * @param isfFilePath path to ISF file from which the rules have been induced
+	 * @param cacheSize limit of the total size of cached bitsets of conditions shared by several rules, in bytes
+	 * @return number of rules with incorrect characteristics, or -1 if any of the files could not be read
+	 *
+	 * @throws InvalidValueException if any attribute or rule is incorrect, or if the files have different attributes
+	 *         (see {@link #checkSameAttributes(Attribute[], Attribute[])})
+	 */
+	static int verifyRulesFile(String rulesFilePath, String isfFilePath, long cacheSize) {
+		InformationTable informationTable = (new Isf2JsonConverter()).convertIsf2InformationTable(isfFilePath);
+		if (informationTable == null) {
+			OM.println("Data could not be read from file " + isfFilePath);
+			return -1;
+		}
+
+		RuleSetWithCharacteristics ruleSet;
+		IntArrayList ruleNumbers = new IntArrayList();
+		Rules2RuleMLConverter rulesConverter = new Rules2RuleMLConverter();
+		try (RulesFileParser rulesFileParser = new RulesFileParser(rulesFilePath, rulesConverter.createFieldCache())) {
+			checkSameAttributes(rulesFileParser.getAttributes(), informationTable.getAttributes());
+			ruleSet = rulesConverter.convertParsedRules2RuleSet(rulesFileParser, ruleNumbers);
+		}
+		catch (FileNotFoundException exception) {
+			OM.println("Rules could not be read from file " + rulesFilePath);
+			return -1;
+		}
+		catch (IOException ex) {
+			OM.println(ex.toString());
+			return -1;
+		}
+
+		long start = System.currentTimeMillis();
+		List<String> differences = (new RuleCharacteristicsVerifier(informationTable, cacheSize)).verify(ruleSet, ruleNumbers.toIntArray());
+		long duration = System.currentTimeMillis() - start;
+
+		for (String difference : differences) {
+			OM.println(difference);
+		}
+		OM.println("Verified " + ruleSet.size() + " rules against " + informationTable.getNumberOfObjects() + " objects in " + duration + " [ms]; rules with incorrect characteristics: " + differences.size());
+
+		return differences.size();
+	}
+
+	/**
+	 * Application entry point.
+	 *
+	 * @param args input arguments of this verifier.
+	 *        Syntax: RuleCharacteristicsVerifier <rules-file-path> <ISF-file-path> [<cache-size-MB>]
+	 */
+	public static void main(String[] args) {
+		//set system console as default message output
+		SystemOut systemOut = new SystemOut();
+		OM.addOutput(systemOut);
+		OM.setDefaultOutput(systemOut.getKey());
+
+		if (args.length < 2) {
+			OM.println("Wrong number of parameters.");
+			OM.println("Syntax:");
+			OM.println("RuleCharacteristicsVerifier <rules-file-path> <ISF-file-path> [<cache-size-MB>]");
+			OM.println("Example:");
+			OM.println("RuleCharacteristicsVerifier GermanCredit.rules GermanCredit.isf 256");
+			return;
+		}
+
+		long cacheSize = DEFAULT_CACHE_SIZE;
+		if (args.length > 2) {
+			long cacheSizeMB = -1;
+			try {
+				cacheSizeMB = Long.parseLong(args[2]);
+			}
+			catch (NumberFormatException exception) {
+				//handled below
+			}
+			if (cacheSizeMB < 0 || cacheSizeMB > (Long.MAX_VALUE >> 20)) {
+				OM.println("Incorrect cache size " + args[2] + "; expected non-negative number of megabytes.");
+				return;
+			}
+			cacheSize = cacheSizeMB << 20;
+		}
+
+		verifyRulesFile(args[0], args[1], cacheSize);
+	}
+
+}
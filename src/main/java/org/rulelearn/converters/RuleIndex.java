@@ -0,0 +1,488 @@
+/**
+ * Copyright (C) Marcin Szeląg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rulelearn.converters;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.rulelearn.core.InvalidValueException;
+import org.rulelearn.data.AttributePreferenceType;
+import org.rulelearn.data.EvaluationAttribute;
+import org.rulelearn.rules.Condition;
+import org.rulelearn.rules.ConditionAtLeastObjectVSThreshold;
+import org.rulelearn.rules.ConditionAtLeastThresholdVSObject;
+import org.rulelearn.rules.ConditionAtMostObjectVSThreshold;
+import org.rulelearn.rules.ConditionAtMostThresholdVSObject;
+import org.rulelearn.rules.ConditionEqualObjectVSThreshold;
+import org.rulelearn.rules.ConditionEqualThresholdVSObject;
+import org.rulelearn.rules.Rule;
+import org.rulelearn.rules.RuleSet;
+import org.rulelearn.types.EnumerationField;
+import org.rulelearn.types.EvaluationField;
+import org.rulelearn.types.Field;
+import org.rulelearn.types.IntegerField;
+import org.rulelearn.types.RealField;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+
+/**
+ * Index of decision rules, written as a sidecar file next to RuleML file by {@link Rules2RuleMLConverter}.
+ * For each attribute, stores thresholds of rule conditions concerning that attribute, sorted in ascending order,
+ * along with ids of the rules containing these conditions. Id of a rule is its (0-based) position in the RuleML file.
+ * Moreover, stores ids of rules for each decision (like "d >= 1").<br>
+ * <br>
+ * Thresholds are stored as numbers: value of an {@link IntegerField} or {@link RealField}, and index of an element of an {@link EnumerationField}.
+ * Each condition is stored as a lower bound ({@link ThresholdType#LOWER_BOUND}), upper bound ({@link ThresholdType#UPPER_BOUND})
+ * or exact value ({@link ThresholdType#EQUAL}) for evaluations of covered objects, taking into account preference type of the attribute.
+ * E.g., condition "at least" concerning a cost-type attribute is stored as an upper bound.
+ * Conditions "at least" and "at most" concerning an attribute without preference ({@link AttributePreferenceType#NONE}) do not impose
+ * a bound in the order of numbers, so they are not stored. Instead, rules containing such conditions are listed as rules that have to be verified
+ * (see {@link #getRuleIdsToVerify()}).
+ * Index is used by {@link RuleIndexMatcher} to find rules covering an object using binary search.
+ *
+ * @author Marcin Szeląg (<a href="mailto:marcin.szelag@cs.put.poznan.pl">marcin.szelag@cs.put.poznan.pl</a>)
+ */
+public class RuleIndex {
+
+	/**
+	 * Kind of constraint that a condition imposes on evaluation of a covered object.
+	 */
+	public enum ThresholdType {
+		/**
+		 * Evaluation of a covered object is greater than or equal to the threshold.
+		 */
+		LOWER_BOUND,
+		/**
+		 * Evaluation of a covered object is less than or equal to the threshold.
+		 */
+		UPPER_BOUND,
+		/**
+		 * Evaluation of a covered object is equal to the threshold.
+		 */
+		EQUAL
+	}
+
+	/**
+	 * Tag written at the beginning of an index file.
+	 */
+	static final int MAGIC_NUMBER = 0x524C4958; //"RLIX"
+	/**
+	 * Version of index file format.
+	 */
+	static final int VERSION = 2;
+
+	/**
+	 * Sorted thresholds, indexed by attribute index and ordinal of {@link ThresholdType}.
+	 */
+	private double[][][] thresholds;
+	/**
+	 * Ids of rules, indexed by attribute index and ordinal of {@link ThresholdType}; parallel to {@link #thresholds}.
+	 */
+	private int[][][] ruleIds;
+	/**
+	 * Number of stored conditions of each rule.
+	 */
+	private int[] conditionsCounts;
+	/**
+	 * Ids of rules having conditions that are not stored, in ascending order.
+	 */
+	private int[] ruleIdsToVerify;
+	/**
+	 * Ids of rules without conditions.
+	 */
+	private int[] unconditionalRuleIds;
+	/**
+	 * Maps decision of a rule (like "d >= 1") to ids of rules having this decision.
+	 */
+	private Map<String, int[]> decision2RuleIds;
+
+	/**
+	 * Constructs index of given rules.
+	 *
+	 * @param ruleSet ruleLearn rules, in the order in which they are written to RuleML file
+	 * @param attributes ruleLearn attributes used in the rules
+	 *
+	 * @throws InvalidValueException if any condition of any rule has type other than supported by {@link Rules2RuleMLConverter}
+	 */
+	public RuleIndex(RuleSet ruleSet, EvaluationAttribute[] attributes) {
+		int rulesCount = ruleSet.size();
+		int thresholdTypesCount = ThresholdType.values().length;
+		IntArrayList[][] thresholdRules = new IntArrayList[attributes.length][thresholdTypesCount];
+		for (int i = 0; i < attributes.length; i++) {
+			for (int j = 0; j < thresholdTypesCount; j++) {
+				thresholdRules[i][j] = new IntArrayList();
+			}
+		}
+
+		//collect conditions as pairs (rule id, position of condition in the rule)
+		Condition<? extends EvaluationField>[][] conditions = new Condition<?>[rulesCount][];
+		conditionsCounts = new int[rulesCount];
+		IntArrayList unconditionalRules = new IntArrayList();
+		IntArrayList rulesToVerify = new IntArrayList();
+		Map<String, IntArrayList> decisionRules = new Object2ObjectLinkedOpenHashMap<String, IntArrayList>();
+
+		for (int ruleId = 0; ruleId < rulesCount; ruleId++) {
+			Rule rule = ruleSet.getRule(ruleId);
+			conditions[ruleId] = rule.getConditions();
+
+			for (int c = 0; c < conditions[ruleId].length; c++) {
+				int attributeIndex = conditions[ruleId][c].getAttributeWithContext().getAttributeIndex();
+				ThresholdType thresholdType = getThresholdType(conditions[ruleId][c], attributes[attributeIndex].getPreferenceType());
+				if (thresholdType != null) {
+					thresholdRules[attributeIndex][thresholdType.ordinal()].add(ruleId);
+					thresholdRules[attributeIndex][thresholdType.ordinal()].add(c);
+					conditionsCounts[ruleId]++;
+				}
+			}
+			if (conditionsCounts[ruleId] < conditions[ruleId].length) {
+				rulesToVerify.add(ruleId);
+			}
+			if (conditionsCounts[ruleId] == 0) {
+				unconditionalRules.add(ruleId);
+			}
+
+			String decision = getDecisionDescription(rule.getDecision());
+			IntArrayList rulesWithDecision = decisionRules.get(decision);
+			if (rulesWithDecision == null) {
+				decisionRules.put(decision, rulesWithDecision = new IntArrayList());
+			}
+			rulesWithDecision.add(ruleId);
+		}
+
+		//sort thresholds
+		thresholds = new double[attributes.length][thresholdTypesCount][];
+		ruleIds = new int[attributes.length][thresholdTypesCount][];
+		for (int i = 0; i < attributes.length; i++) {
+			for (int j = 0; j < thresholdTypesCount; j++) {
+				IntArrayList pairs = thresholdRules[i][j];
+				int size = pairs.size() / 2;
+				int[] order = new int[size];
+				double[] unsortedThresholds = new double[size];
+
+				for (int k = 0; k < size; k++) {
+					unsortedThresholds[k] = getNumericValue(conditions[pairs.getInt(2 * k)][pairs.getInt(2 * k + 1)].getLimitingEvaluation());
+					order[k] = k;
+				}
+				IntArrays.mergeSort(order, (x, y) -> Double.compare(unsortedThresholds[x], unsortedThresholds[y])); //stable, so rules with equal thresholds keep ascending ids
+
+				thresholds[i][j] = new double[size];
+				ruleIds[i][j] = new int[size];
+				for (int k = 0; k < size; k++) {
+					thresholds[i][j][k] = unsortedThresholds[order[k]];
+					ruleIds[i][j][k] = pairs.getInt(2 * order[k]);
+				}
+				thresholdRules[i][j] = null;
+			}
+		}
+
+		unconditionalRuleIds = unconditionalRules.toIntArray();
+		ruleIdsToVerify = rulesToVerify.toIntArray();
+		decision2RuleIds = new Object2ObjectLinkedOpenHashMap<String, int[]>();
+		for (Map.Entry<String, IntArrayList> entry : decisionRules.entrySet()) {
+			decision2RuleIds.put(entry.getKey(), entry.getValue().toIntArray());
+		}
+	}
+
+	/**
+	 * Constructs index from its components. Used when the index is read from file.
+	 */
+	private RuleIndex(double[][][] thresholds, int[][][] ruleIds, int[] conditionsCounts, int[] ruleIdsToVerify, int[] unconditionalRuleIds,
+			Map<String, int[]> decision2RuleIds) {
+		this.thresholds = thresholds;
+		this.ruleIds = ruleIds;
+		this.conditionsCounts = conditionsCounts;
+		this.ruleIdsToVerify = ruleIdsToVerify;
+		this.unconditionalRuleIds = unconditionalRuleIds;
+		this.decision2RuleIds = decision2RuleIds;
+	}
+
+	/**
+	 * Gets kind of constraint imposed by given condition on evaluation of a covered object.
+	 * Conditions "at least" and "at most" concerning an attribute without preference ({@link AttributePreferenceType#NONE})
+	 * do not impose a bound in the order of numbers, so no kind of constraint is returned for them.
+	 *
+	 * @param condition ruleLearn condition
+	 * @param preferenceType preference type of the attribute used in the condition
+	 * @return kind of constraint imposed by given condition, or {@code null} if given condition is "at least" or "at most"
+	 *         and preference type is {@link AttributePreferenceType#NONE}
+	 *
+	 * @throws InvalidValueException if condition has type other than supported by {@link Rules2RuleMLConverter}
+	 */
+	static ThresholdType getThresholdType(Condition<? extends EvaluationField> condition, AttributePreferenceType preferenceType) {
+		boolean cost = (preferenceType == AttributePreferenceType.COST);
+		boolean none = (preferenceType == AttributePreferenceType.NONE);
+
+		if (condition instanceof ConditionAtLeastThresholdVSObject || condition instanceof ConditionAtLeastObjectVSThreshold) {
+			return none ? null : (cost ? ThresholdType.UPPER_BOUND : ThresholdType.LOWER_BOUND);
+		} else {
+			if (condition instanceof ConditionAtMostThresholdVSObject || condition instanceof ConditionAtMostObjectVSThreshold) {
+				return none ? null : (cost ? ThresholdType.LOWER_BOUND : ThresholdType.UPPER_BOUND);
+			} else {
+				if (condition instanceof ConditionEqualThresholdVSObject || condition instanceof ConditionEqualObjectVSThreshold) {
+					return ThresholdType.EQUAL;
+				} else {
+					throw new InvalidValueException("Cannot index condition of type other than at least, at most, or equal.");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets textual description of given decision, like "d >= 1".
+	 *
+	 * @param decision decision of a ruleLearn rule
+	 * @return textual description of given decision
+	 */
+	static String getDecisionDescription(Condition<? extends EvaluationField> decision) {
+		String relation;
+		if (decision instanceof ConditionAtLeastThresholdVSObject || decision instanceof ConditionAtLeastObjectVSThreshold) {
+			relation = " >= ";
+		} else {
+			if (decision instanceof ConditionAtMostThresholdVSObject || decision instanceof ConditionAtMostObjectVSThreshold) {
+				relation = " <= ";
+			} else {
+				relation = " = ";
+			}
+		}
+		return decision.getAttributeWithContext().getAttributeName() + relation + decision.getLimitingEvaluation();
+	}
+
+	/**
+	 * Gets numeric value of given field, used to compare it with thresholds stored in this index.
+	 *
+	 * @param field ruleLearn field
+	 * @return value of an {@link IntegerField} or {@link RealField}, index of an element of an {@link EnumerationField},
+	 *         or {@link Double#NaN} if given field is not a known integer, real, or enumeration field (e.g., it is a missing value)
+	 */
+	public static double getNumericValue(Field field) {
+		if (field instanceof IntegerField) {
+			return ((IntegerField)field).getValue();
+		} else {
+			if (field instanceof RealField) {
+				return ((RealField)field).getValue();
+			} else {
+				if (field instanceof EnumerationField) {
+					return ((EnumerationField)field).getValue();
+				} else {
+					return Double.NaN;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets number of indexed attributes.
+	 *
+	 * @return number of indexed attributes
+	 */
+	public int getAttributesCount() {
+		return thresholds.length;
+	}
+
+	/**
+	 * Gets number of indexed rules.
+	 *
+	 * @return number of indexed rules
+	 */
+	public int getRulesCount() {
+		return conditionsCounts.length;
+	}
+
+	/**
+	 * Gets thresholds of conditions of given type concerning given attribute, sorted in ascending order.
+	 *
+	 * @param attributeIndex index of an attribute
+	 * @param thresholdType type of threshold
+	 * @return sorted thresholds; the array should not be modified
+	 */
+	public double[] getThresholds(int attributeIndex, ThresholdType thresholdType) {
+		return thresholds[attributeIndex][thresholdType.ordinal()];
+	}
+
+	/**
+	 * Gets ids of rules with conditions of given type concerning given attribute, in the order of {@link #getThresholds(int, ThresholdType)}.
+	 *
+	 * @param attributeIndex index of an attribute
+	 * @param thresholdType type of threshold
+	 * @return ids of rules; the array should not be modified
+	 */
+	public int[] getRuleIds(int attributeIndex, ThresholdType thresholdType) {
+		return ruleIds[attributeIndex][thresholdType.ordinal()];
+	}
+
+	/**
+	 * Gets number of stored conditions of the rule with given id.
+	 *
+	 * @param ruleId id of a rule
+	 * @return number of stored conditions of the rule
+	 */
+	public int getConditionsCount(int ruleId) {
+		return conditionsCounts[ruleId];
+	}
+
+	/**
+	 * Gets ids of rules having conditions that are not stored in this index, i.e., conditions "at least" or "at most"
+	 * concerning an attribute without preference. Such conditions have to be verified against the rules themselves.
+	 *
+	 * @return ids of rules to verify, in ascending order; the array should not be modified
+	 */
+	public int[] getRuleIdsToVerify() {
+		return ruleIdsToVerify;
+	}
+
+	/**
+	 * Tells if the rule with given id has conditions that are not stored in this index (see {@link #getRuleIdsToVerify()}).
+	 *
+	 * @param ruleId id of a rule
+	 * @return {@code true} if the rule has to be verified against the rule itself, {@code false} otherwise
+	 */
+	public boolean requiresVerification(int ruleId) {
+		return Arrays.binarySearch(ruleIdsToVerify, ruleId) >= 0;
+	}
+
+	/**
+	 * Gets ids of rules without stored conditions (i.e., covering all objects, unless they {@link #requiresVerification(int) require verification}).
+	 *
+	 * @return ids of rules without stored conditions; the array should not be modified
+	 */
+	public int[] getUnconditionalRuleIds() {
+		return unconditionalRuleIds;
+	}
+
+	/**
+	 * Gets map from decision of a rule (like "d >= 1") to ids of rules having this decision.
+	 *
+	 * @return map from decision to ids of rules, in the order in which decisions appear in the RuleML file
+	 */
+	public Map<String, int[]> getDecisionRuleIds() {
+		return decision2RuleIds;
+	}
+
+	/**
+	 * Writes this index to given file.
+	 *
+	 * @param ruleIndexFilePath path to output file
+	 * @throws IOException if index cannot be written
+	 */
+	public void write(String ruleIndexFilePath) throws IOException {
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(ruleIndexFilePath)))) {
+			output.writeInt(MAGIC_NUMBER);
+			output.writeInt(VERSION);
+			output.writeInt(conditionsCounts.length);
+			output.writeInt(thresholds.length);
+
+			for (int i = 0; i < thresholds.length; i++) {
+				for (int j = 0; j < thresholds[i].length; j++) {
+					output.writeInt(thresholds[i][j].length);
+					for (int k = 0; k < thresholds[i][j].length; k++) {
+						output.writeDouble(thresholds[i][j][k]);
+						output.writeInt(ruleIds[i][j][k]);
+					}
+				}
+			}
+			for (int conditionsCount : conditionsCounts) {
+				output.writeInt(conditionsCount);
+			}
+			writeIntArray(output, ruleIdsToVerify);
+			writeIntArray(output, unconditionalRuleIds);
+
+			output.writeInt(decision2RuleIds.size());
+			for (Map.Entry<String, int[]> entry : decision2RuleIds.entrySet()) {
+				output.writeUTF(entry.getKey());
+				writeIntArray(output, entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Reads index from given file, written by {@link #write(String)}.
+	 *
+	 * @param ruleIndexFilePath path to index file
+	 * @return read index
+	 *
+	 * @throws IOException if index cannot be read
+	 * @throws InvalidValueException if given file is not a rule index file, or has unsupported version
+	 */
+	public static RuleIndex read(String ruleIndexFilePath) throws IOException {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(ruleIndexFilePath)))) {
+			if (input.readInt() != MAGIC_NUMBER) {
+				throw new InvalidValueException("File " + ruleIndexFilePath + " is not a rule index file.");
+			}
+			int version = input.readInt();
+			if (version != VERSION) {
+				throw new InvalidValueException("Unsupported version of rule index file: " + version + ".");
+			}
+			int rulesCount = input.readInt();
+			int attributesCount = input.readInt();
+			int thresholdTypesCount = ThresholdType.values().length;
+
+			double[][][] thresholds = new double[attributesCount][thresholdTypesCount][];
+			int[][][] ruleIds = new int[attributesCount][thresholdTypesCount][];
+			for (int i = 0; i < attributesCount; i++) {
+				for (int j = 0; j < thresholdTypesCount; j++) {
+					int size = input.readInt();
+					thresholds[i][j] = new double[size];
+					ruleIds[i][j] = new int[size];
+					for (int k = 0; k < size; k++) {
+						thresholds[i][j][k] = input.readDouble();
+						ruleIds[i][j][k] = input.readInt();
+					}
+				}
+			}
+			int[] conditionsCounts = new int[rulesCount];
+			for (int r = 0; r < rulesCount; r++) {
+				conditionsCounts[r] = input.readInt();
+			}
+			int[] ruleIdsToVerify = readIntArray(input);
+			int[] unconditionalRuleIds = readIntArray(input);
+
+			int decisionsCount = input.readInt();
+			Map<String, int[]> decision2RuleIds = new Object2ObjectLinkedOpenHashMap<String, int[]>();
+			for (int d = 0; d < decisionsCount; d++) {
+				String decision = input.readUTF();
+				decision2RuleIds.put(decision, readIntArray(input));
+			}
+
+			return new RuleIndex(thresholds, ruleIds, conditionsCounts, ruleIdsToVerify, unconditionalRuleIds, decision2RuleIds);
+		}
+	}
+
+	private static void writeIntArray(DataOutputStream output, int[] array) throws IOException {
+		output.writeInt(array.length);
+		for (int value : array) {
+			output.writeInt(value);
+		}
+	}
+
+	private static int[] readIntArray(DataInputStream input) throws IOException {
+		int[] array = new int[input.readInt()];
+		for (int k = 0; k < array.length; k++) {
+			array[k] = input.readInt();
+		}
+		return array;
+	}
+
+}
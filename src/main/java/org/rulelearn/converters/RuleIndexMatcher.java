@@ -0,0 +1,323 @@
+/**
+ * Copyright (C) Marcin Szeląg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rulelearn.converters;
+
+import java.util.Arrays;
+
+import org.rulelearn.converters.RuleIndex.ThresholdType;
+import org.rulelearn.data.InformationTable;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * Finds rules covering an object using a {@link RuleIndex}. For each rule having conditions, one condition is chosen as its anchor,
+ * when the matcher is constructed. Anchors are kept in per-attribute lists of sorted thresholds, like all conditions in the index.
+ * When an object is matched, rules whose anchor is satisfied are found by binary search in these lists, and only for such candidate rules
+ * the remaining conditions are checked (stopping at the first condition that is not satisfied).
+ * Hence, matching an object costs O(attributes &times; log(rules) + sum of the numbers of conditions checked for candidate rules),
+ * instead of O(rules &times; conditions). The number of candidates is never greater than the number of rules having at least one satisfied condition,
+ * but it depends on the selectivity of anchors, so for an object satisfying anchors of most rules, matching remains linear in the number of rules.<br>
+ * <br>
+ * As distribution of evaluations is not known, the anchor of a rule is its condition estimated to be satisfied by the smallest fraction of objects:
+ * for a condition "at least" ("at most"), it is the fraction of the range of all thresholds of the attribute that lies above (below) the threshold,
+ * and for a condition "equal" - one divided by the number of different thresholds "equal" of the attribute, plus one.<br>
+ * <br>
+ * Missing evaluation of an object satisfies each condition concerning the respective attribute, as for {@link org.rulelearn.types.UnknownSimpleFieldMV2}.
+ * Returned rules cover given object, except rules {@link RuleIndex#requiresVerification(int) requiring verification}, i.e., having conditions
+ * "at least" or "at most" concerning an attribute without preference. Only the other conditions of such rules are checked, so these rules
+ * are candidates that should be verified against the rules themselves.<br>
+ * <br>
+ * This class is not thread-safe; each thread should use its own matcher for the same index.
+ *
+ * @author Marcin Szeląg (<a href="mailto:marcin.szelag@cs.put.poznan.pl">marcin.szelag@cs.put.poznan.pl</a>)
+ */
+public class RuleIndexMatcher {
+
+	/**
+	 * Matched index.
+	 */
+	private RuleIndex ruleIndex;
+	/**
+	 * Sorted thresholds of anchors, for each attribute and threshold type.
+	 */
+	private double[][][] anchorThresholds;
+	/**
+	 * Ids of rules whose anchors are stored in {@link #anchorThresholds}, at the same positions.
+	 */
+	private int[][][] anchorRuleIds;
+	/**
+	 * Position of the first condition of each rule in {@link #conditionAttributes}, {@link #conditionTypes}, and {@link #conditionThresholds};
+	 * the last element is the number of all (indexed) conditions.
+	 */
+	private int[] conditionStarts;
+	/**
+	 * Index of the attribute of each condition.
+	 */
+	private int[] conditionAttributes;
+	/**
+	 * Threshold type of each condition.
+	 */
+	private ThresholdType[] conditionTypes;
+	/**
+	 * Threshold of each condition.
+	 */
+	private double[] conditionThresholds;
+	/**
+	 * Ids of rules covering currently matched object.
+	 */
+	private IntArrayList coveringRuleIds;
+
+	/**
+	 * Constructs matcher for given index, choosing anchors of the rules. Costs O(attributes + rules + conditions).
+	 *
+	 * @param ruleIndex index of rules
+	 */
+	public RuleIndexMatcher(RuleIndex ruleIndex) {
+		this.ruleIndex = ruleIndex;
+		int attributesCount = ruleIndex.getAttributesCount();
+		int rulesCount = ruleIndex.getRulesCount();
+		ThresholdType[] thresholdTypes = ThresholdType.values();
+
+		//store conditions of each rule
+		conditionStarts = new int[rulesCount + 1];
+		for (int ruleId = 0; ruleId < rulesCount; ruleId++) {
+			conditionStarts[ruleId + 1] = conditionStarts[ruleId] + ruleIndex.getConditionsCount(ruleId);
+		}
+		int conditionsCount = conditionStarts[rulesCount];
+		conditionAttributes = new int[conditionsCount];
+		conditionTypes = new ThresholdType[conditionsCount];
+		conditionThresholds = new double[conditionsCount];
+		double[] conditionSelectivities = new double[conditionsCount];
+		int[] storedConditionsCounts = new int[rulesCount];
+
+		for (int i = 0; i < attributesCount; i++) {
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for (ThresholdType thresholdType : thresholdTypes) {
+				double[] thresholds = ruleIndex.getThresholds(i, thresholdType);
+				if (thresholds.length > 0) {
+					min = Math.min(min, thresholds[0]);
+					max = Math.max(max, thresholds[thresholds.length - 1]);
+				}
+			}
+			double range = max - min;
+
+			double[] equalThresholds = ruleIndex.getThresholds(i, ThresholdType.EQUAL);
+			int differentEqualThresholdsCount = 0;
+			for (int k = 0; k < equalThresholds.length; k++) {
+				if (k == 0 || equalThresholds[k] != equalThresholds[k - 1]) {
+					differentEqualThresholdsCount++;
+				}
+			}
+
+			for (ThresholdType thresholdType : thresholdTypes) {
+				double[] thresholds = ruleIndex.getThresholds(i, thresholdType);
+				int[] ruleIds = ruleIndex.getRuleIds(i, thresholdType);
+				for (int k = 0; k < thresholds.length; k++) {
+					int c = conditionStarts[ruleIds[k]] + storedConditionsCounts[ruleIds[k]]++;
+					conditionAttributes[c] = i;
+					conditionTypes[c] = thresholdType;
+					conditionThresholds[c] = thresholds[k];
+					switch (thresholdType) {
+					case LOWER_BOUND:
+						conditionSelectivities[c] = range > 0 ? (max - thresholds[k]) / range : 1.0;
+						break;
+					case UPPER_BOUND:
+						conditionSelectivities[c] = range > 0 ? (thresholds[k] - min) / range : 1.0;
+						break;
+					default:
+						conditionSelectivities[c] = 1.0 / (differentEqualThresholdsCount + 1);
+					}
+				}
+			}
+		}
+
+		//choose anchors
+		boolean[] anchors = new boolean[conditionsCount];
+		for (int ruleId = 0; ruleId < rulesCount; ruleId++) {
+			int anchor = -1;
+			for (int c = conditionStarts[ruleId]; c < conditionStarts[ruleId + 1]; c++) {
+				if (anchor < 0 || conditionSelectivities[c] < conditionSelectivities[anchor]) {
+					anchor = c;
+				}
+			}
+			if (anchor >= 0) {
+				anchors[anchor] = true;
+			}
+		}
+
+		//store anchors in sorted lists, filtering lists of the index (conditions are visited in the same order as above)
+		anchorThresholds = new double[attributesCount][thresholdTypes.length][];
+		anchorRuleIds = new int[attributesCount][thresholdTypes.length][];
+		Arrays.fill(storedConditionsCounts, 0);
+		for (int i = 0; i < attributesCount; i++) {
+			for (ThresholdType thresholdType : thresholdTypes) {
+				double[] thresholds = ruleIndex.getThresholds(i, thresholdType);
+				int[] ruleIds = ruleIndex.getRuleIds(i, thresholdType);
+				DoubleArrayList selectedThresholds = new DoubleArrayList();
+				IntArrayList selectedRuleIds = new IntArrayList();
+				for (int k = 0; k < thresholds.length; k++) {
+					if (anchors[conditionStarts[ruleIds[k]] + storedConditionsCounts[ruleIds[k]]++]) {
+						selectedThresholds.add(thresholds[k]);
+						selectedRuleIds.add(ruleIds[k]);
+					}
+				}
+				anchorThresholds[i][thresholdType.ordinal()] = selectedThresholds.toDoubleArray();
+				anchorRuleIds[i][thresholdType.ordinal()] = selectedRuleIds.toIntArray();
+			}
+		}
+
+		coveringRuleIds = new IntArrayList();
+	}
+
+	/**
+	 * Gets ids of rules covering given object from given information table.
+	 *
+	 * @param informationTable information table with the same attributes as indexed rules
+	 * @param objectIndex index of an object in the information table
+	 * @return ids of covering rules (and candidate rules {@link RuleIndex#requiresVerification(int) requiring verification}), in ascending order
+	 */
+	public int[] getCoveringRules(InformationTable informationTable, int objectIndex) {
+		double[] evaluations = new double[ruleIndex.getAttributesCount()];
+		for (int i = 0; i < evaluations.length; i++) {
+			evaluations[i] = RuleIndex.getNumericValue(informationTable.getField(objectIndex, i));
+		}
+		return getCoveringRules(evaluations);
+	}
+
+	/**
+	 * Gets ids of rules covering an object with given evaluations.
+	 *
+	 * @param evaluations numeric evaluations of an object (see {@link RuleIndex#getNumericValue(org.rulelearn.types.Field)}),
+	 *        with {@link Double#NaN} denoting missing value
+	 * @return ids of covering rules (and candidate rules {@link RuleIndex#requiresVerification(int) requiring verification}), in ascending order
+	 */
+	public int[] getCoveringRules(double[] evaluations) {
+		coveringRuleIds.addElements(0, ruleIndex.getUnconditionalRuleIds());
+
+		for (int i = 0; i < evaluations.length; i++) {
+			double value = evaluations[i];
+			double[] thresholds;
+			boolean missing = Double.isNaN(value);
+
+			//value >= threshold
+			thresholds = anchorThresholds[i][ThresholdType.LOWER_BOUND.ordinal()];
+			checkCandidates(anchorRuleIds[i][ThresholdType.LOWER_BOUND.ordinal()], 0, missing ? thresholds.length : firstGreater(thresholds, value), evaluations);
+			//value <= threshold
+			thresholds = anchorThresholds[i][ThresholdType.UPPER_BOUND.ordinal()];
+			checkCandidates(anchorRuleIds[i][ThresholdType.UPPER_BOUND.ordinal()], missing ? 0 : firstNotLess(thresholds, value), thresholds.length, evaluations);
+			//value == threshold
+			thresholds = anchorThresholds[i][ThresholdType.EQUAL.ordinal()];
+			if (missing) {
+				checkCandidates(anchorRuleIds[i][ThresholdType.EQUAL.ordinal()], 0, thresholds.length, evaluations);
+			} else {
+				checkCandidates(anchorRuleIds[i][ThresholdType.EQUAL.ordinal()], firstNotLess(thresholds, value), firstGreater(thresholds, value), evaluations);
+			}
+		}
+
+		int[] result = coveringRuleIds.toIntArray();
+		coveringRuleIds.clear(); //prepare for next object
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * Checks all conditions of candidate rules with ids from given range, i.e., rules whose anchors are satisfied, and stores ids of covering rules.
+	 *
+	 * @param ruleIds ids of rules
+	 * @param from first position (inclusive)
+	 * @param to last position (exclusive)
+	 * @param evaluations numeric evaluations of matched object
+	 */
+	private void checkCandidates(int[] ruleIds, int from, int to, double[] evaluations) {
+		for (int k = from; k < to; k++) {
+			int ruleId = ruleIds[k];
+			boolean covered = true;
+			for (int c = conditionStarts[ruleId]; covered && c < conditionStarts[ruleId + 1]; c++) {
+				covered = isSatisfied(c, evaluations[conditionAttributes[c]]);
+			}
+			if (covered) {
+				coveringRuleIds.add(ruleId);
+			}
+		}
+	}
+
+	/**
+	 * Tells if given condition is satisfied by given evaluation.
+	 *
+	 * @param c position of the condition in {@link #conditionAttributes}
+	 * @param value numeric evaluation, or {@link Double#NaN} denoting missing value
+	 * @return {@code true} if given evaluation is missing or satisfies the condition, {@code false} otherwise
+	 */
+	private boolean isSatisfied(int c, double value) {
+		if (Double.isNaN(value)) {
+			return true;
+		}
+		switch (conditionTypes[c]) {
+		case LOWER_BOUND:
+			return value >= conditionThresholds[c];
+		case UPPER_BOUND:
+			return value <= conditionThresholds[c];
+		default:
+			return value == conditionThresholds[c];
+		}
+	}
+
+	/**
+	 * Gets position of the first threshold greater than given value.
+	 *
+	 * @param thresholds sorted thresholds
+	 * @param value considered value
+	 * @return position of the first threshold greater than given value, or length of the array if there is no such threshold
+	 */
+	static int firstGreater(double[] thresholds, double value) {
+		int low = 0;
+		int high = thresholds.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (thresholds[middle] <= value) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Gets position of the first threshold greater than or equal to given value.
+	 *
+	 * @param thresholds sorted thresholds
+	 * @param value considered value
+	 * @return position of the first threshold not less than given value, or length of the array if there is no such threshold
+	 */
+	static int firstNotLess(double[] thresholds, double value) {
+		int low = 0;
+		int high = thresholds.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (thresholds[middle] < value) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+}
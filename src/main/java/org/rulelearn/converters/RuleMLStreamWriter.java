@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) Marcin Szeląg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rulelearn.converters;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import org.rulelearn.core.InvalidValueException;
+import org.rulelearn.rules.Rule;
+import org.rulelearn.rules.RuleCharacteristics;
+import org.rulelearn.rules.RuleSetWithCharacteristics;
+import org.rulelearn.rules.ruleml.RuleMLBuilder;
+
+/**
+ * Writes rules in RuleML format batch by batch, so that a set of rules does not have to be built (and serialized) at once.
+ * Written document is the same as the one written by {@link RuleMLBuilder#toRuleMLString(RuleSetWithCharacteristics, int)}
+ * for all written rules, in the order in which they are written.<br>
+ * <br>
+ * {@link RuleMLBuilder} serializes only whole sets of rules, so each batch is serialized as a separate document, and only the part
+ * of that document describing the rules is written. That part is found by comparing the document with the document for an empty set of rules,
+ * whose common prefix and the remaining suffix are written once, at the beginning and at the end of the whole document.
+ *
+ * @author Marcin Szeląg (<a href="mailto:marcin.szelag@cs.put.poznan.pl">marcin.szelag@cs.put.poznan.pl</a>)
+ */
+final class RuleMLStreamWriter {
+
+	/**
+	 * Index of the written set of rules, the same as in {@link Rules2RuleMLConverter#writeRuleML(RuleSetWithCharacteristics, Writer)}.
+	 */
+	static final int RULE_SET_INDEX = 1;
+
+	private final RuleMLBuilder ruleMLBuilder = new RuleMLBuilder();
+	private final Writer ruleMLWriter;
+	/**
+	 * RuleML document for an empty set of rules.
+	 */
+	private final String emptyDocument;
+	/**
+	 * Part of each document preceding the rules; {@code null} until the first batch is serialized.
+	 */
+	private String prefix;
+	/**
+	 * Part of each document following the rules; {@code null} until the first batch is serialized.
+	 */
+	private String suffix;
+	private boolean finished = false;
+
+	/**
+	 * Constructs this writer.
+	 *
+	 * @param ruleMLWriter writer to which rules should be written in RuleML format; not flushed, nor closed
+	 */
+	RuleMLStreamWriter(Writer ruleMLWriter) {
+		this.ruleMLWriter = ruleMLWriter;
+		this.emptyDocument = toRuleMLString(new Rule[0], new RuleCharacteristics[0]);
+	}
+
+	/**
+	 * Serializes given batch of rules and writes it after previously written rules.
+	 *
+	 * @param rules batch of rules
+	 * @param ruleCharacteristics characteristics of the rules from given batch
+	 *
+	 * @throws IOException if RuleML writer cannot be written
+	 * @throws InvalidValueException if RuleML document for given batch is not composed of the same prefix and suffix as the document for an empty set of rules
+	 * @throws IllegalStateException if this writer has already been finished
+	 */
+	void write(Rule[] rules, RuleCharacteristics[] ruleCharacteristics) throws IOException {
+		if (finished) {
+			throw new IllegalStateException("RuleML document has already been finished.");
+		}
+		if (rules.length == 0) {
+			return;
+		}
+		String document = toRuleMLString(rules, ruleCharacteristics);
+
+		if (prefix == null) {
+			int prefixLength = 0;
+			int maxPrefixLength = Math.min(emptyDocument.length(), document.length());
+			while (prefixLength < maxPrefixLength && emptyDocument.charAt(prefixLength) == document.charAt(prefixLength)) {
+				prefixLength++;
+			}
+			prefix = emptyDocument.substring(0, prefixLength);
+			suffix = emptyDocument.substring(prefixLength);
+			ruleMLWriter.write(prefix);
+		}
+
+		if (document.length() < prefix.length() + suffix.length() || !document.startsWith(prefix) || !document.endsWith(suffix)) {
+			throw new InvalidValueException("RuleML document for a batch of rules does not match RuleML document for an empty set of rules.");
+		}
+		ruleMLWriter.write(document, prefix.length(), document.length() - prefix.length() - suffix.length());
+	}
+
+	/**
+	 * Writes the end of RuleML document. If no rules have been written, writes the document for an empty set of rules.
+	 *
+	 * @throws IOException if RuleML writer cannot be written
+	 */
+	void finish() throws IOException {
+		if (!finished) {
+			ruleMLWriter.write(prefix != null ? suffix : emptyDocument);
+			finished = true;
+		}
+	}
+
+	private String toRuleMLString(Rule[] rules, RuleCharacteristics[] ruleCharacteristics) {
+		return ruleMLBuilder.toRuleMLString(new RuleSetWithCharacteristics(rules, ruleCharacteristics, true), RULE_SET_INDEX);
+	}
+
+}
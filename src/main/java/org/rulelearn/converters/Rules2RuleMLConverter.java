@@ -16,12 +16,24 @@
 
 package org.rulelearn.converters;
 
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
 
+import org.rulelearn.converters.RulesFileParser.RelationType;
 import org.rulelearn.core.InvalidValueException;
 import org.rulelearn.data.EvaluationAttribute;
 import org.rulelearn.data.EvaluationAttributeWithContext;
@@ -42,6 +54,8 @@ import org.rulelearn.rules.ruleml.RuleMLBuilder;
 import org.rulelearn.types.EvaluationField;
 import org.rulelearn.types.Field;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import pl.poznan.put.cs.idss.jrs.core.SimpleParseLog;
 import pl.poznan.put.cs.idss.jrs.output.OM;
@@ -65,6 +79,108 @@ import pl.poznan.put.cs.idss.jrs.rules.SingleCondition;
  */
 public class Rules2RuleMLConverter {
 	
+	/**
+	 * Number of groups of rules (certain/possible x at least/at most/equal).
+	 */
+	static final int RULE_GROUPS_COUNT = 6;
+	
+	/**
+	 * Capacity of the {@link FieldCache field cache} created for each conversion.
+	 */
+	private int fieldCacheCapacity;
+	/**
+	 * Eviction policy of the {@link FieldCache field cache} created for each conversion.
+	 */
+	private FieldCache.EvictionPolicy fieldCacheEvictionPolicy;
+	/**
+	 * Tells if parsing, conversion, and writing are run concurrently (see {@link #Rules2RuleMLConverter(int, FieldCache.EvictionPolicy, boolean)}).
+	 */
+	private boolean pipelined;
+	/**
+	 * Tells if statistics of field cache are printed after each conversion (see {@link #setPrintingFieldCacheStatistics(boolean)}).
+	 */
+	private boolean printingFieldCacheStatistics = false;
+	
+	/**
+	 * Constructs this converter, creating for each conversion a {@link FieldCache field cache} with {@link FieldCache#DEFAULT_CAPACITY default capacity}
+	 * and {@link FieldCache.EvictionPolicy#LRU LRU} eviction policy.
+	 */
+	public Rules2RuleMLConverter() {
+		this(FieldCache.DEFAULT_CAPACITY, FieldCache.EvictionPolicy.LRU);
+	}
+	
+	/**
+	 * Constructs this converter, creating for each conversion a {@link FieldCache field cache} with given capacity and eviction policy.
+	 * Each conversion has its own field cache, so concurrent conversions performed by this converter do not evict each other's fields.
+	 * 
+	 * @param fieldCacheCapacity maximum number of fields cached during a conversion
+	 * @param fieldCacheEvictionPolicy policy used to choose field evicted from a full field cache
+	 * 
+	 * @throws IllegalArgumentException if given capacity is not positive
+	 * @throws NullPointerException if given eviction policy is {@code null}
+	 */
+	public Rules2RuleMLConverter(int fieldCacheCapacity, FieldCache.EvictionPolicy fieldCacheEvictionPolicy) {
+		this(fieldCacheCapacity, fieldCacheEvictionPolicy, false);
+	}
+	
+	/**
+	 * Constructs this converter, creating for each conversion a {@link FieldCache field cache} with given capacity and eviction policy,
+	 * in pipelined or sequential mode.
+	 * In pipelined mode, rules are parsed in a separate thread and passed in batches, through a bounded queue, to the thread converting them
+	 * (see {@link BatchPipeline}), batches of converted rules are passed, through another bounded queue, to the thread serializing them to RuleML
+	 * (see {@link #convertParsedRules2RuleML(RulesFileParser, Writer, boolean)}), and attributes are written concurrently with processing of rules.
+	 * Rules are converted in the same order, and output files are the same as in sequential mode.
+	 * On a single-processor machine, sequential mode is used anyway.
+	 * 
+	 * @param fieldCacheCapacity maximum number of fields cached during a conversion
+	 * @param fieldCacheEvictionPolicy policy used to choose field evicted from a full field cache
+	 * @param pipelined tells if parsing, conversion, and writing should be run concurrently
+	 * 
+	 * @throws IllegalArgumentException if given capacity is not positive
+	 * @throws NullPointerException if given eviction policy is {@code null}
+	 */
+	public Rules2RuleMLConverter(int fieldCacheCapacity, FieldCache.EvictionPolicy fieldCacheEvictionPolicy, boolean pipelined) {
+		if (fieldCacheCapacity <= 0) {
+			throw new IllegalArgumentException("Capacity of field cache has to be positive.");
+		}
+		if (fieldCacheEvictionPolicy == null) {
+			throw new NullPointerException("Eviction policy of field cache is null.");
+		}
+		this.fieldCacheCapacity = fieldCacheCapacity;
+		this.fieldCacheEvictionPolicy = fieldCacheEvictionPolicy;
+		this.pipelined = pipelined && Runtime.getRuntime().availableProcessors() > 1; //on a single processor, concurrent stages would only compete for it
+	}
+	
+	/**
+	 * Sets if statistics of the field cache of each conversion should be printed, using {@link OM}, after the conversion. By default, they are not printed.
+	 * 
+	 * @param printingFieldCacheStatistics tells if statistics of field cache should be printed after each conversion
+	 */
+	public void setPrintingFieldCacheStatistics(boolean printingFieldCacheStatistics) {
+		this.printingFieldCacheStatistics = printingFieldCacheStatistics;
+	}
+	
+	/**
+	 * Creates field cache for a single conversion.
+	 * 
+	 * @return new field cache, with capacity and eviction policy set for this converter
+	 */
+	FieldCache createFieldCache() {
+		return new FieldCache(fieldCacheCapacity, fieldCacheEvictionPolicy);
+	}
+	
+	/**
+	 * Releases field cache of a finished (or failed) conversion: prints its statistics, if requested, and clears it.
+	 * 
+	 * @param fieldCache field cache of a conversion
+	 */
+	private void releaseFieldCache(FieldCache fieldCache) {
+		if (printingFieldCacheStatistics) {
+			OM.println(fieldCache.toString());
+		}
+		fieldCache.clear(); //fields are referenced by converted rules, so cache is no longer needed
+	}
+	
 	/**
 	 * Pair composed of a decision rule and its characteristics.
 	 * 
@@ -88,6 +204,7 @@ public class Rules2RuleMLConverter {
 	 *        
 	 * @param jRSCondition jRS condition that should be converted to ruleLearn condition
 	 * @param rlAttribute ruleLearn attribute to be used in the returned condition
+	 * @param fieldConverter converter of jRS fields, using field cache of the current conversion
 	 * 
 	 * @return ruleLearn condition corresponding to given jRS condition
 	 * @throws UnsupportedOperationException if conversion could not be performed due to one of the following reasons:
@@ -97,60 +214,23 @@ public class Rules2RuleMLConverter {
 	 *         <li>if type of the given condition is not {@link SingleCondition}</li>
 	 *         </ul>
 	 */
-	Condition<EvaluationField> convertSingleJRSCondition(int jRSRuleType, pl.poznan.put.cs.idss.jrs.rules.Condition jRSCondition, EvaluationAttribute rlAttribute) {
+	Condition<EvaluationField> convertSingleJRSCondition(int jRSRuleType, pl.poznan.put.cs.idss.jrs.rules.Condition jRSCondition, EvaluationAttribute rlAttribute,
+			jRSField2rLField fieldConverter) {
 		
-		Condition<EvaluationField> condition;
 		Relation relation;
-		int attributeIndex;
+		RelationType relationType;
 		
 		if (jRSCondition instanceof SingleCondition) {
 			relation = ((SingleCondition)jRSCondition).getRelation();
-			attributeIndex = jRSCondition.getAttributeInfo().getAttributeNumber();
 			
 			if (relation instanceof RelationAtLeast) {
-				if (jRSRuleType == pl.poznan.put.cs.idss.jrs.rules.Rule.CERTAIN) {
-					condition = 
-							new ConditionAtLeastThresholdVSObject<EvaluationField>(new EvaluationAttributeWithContext(rlAttribute, attributeIndex),
-							(new jRSField2rLField()).convertjRSField2rLField(relation.getReferenceValue(), rlAttribute.getPreferenceType()));
-				} else {
-					if (jRSRuleType == pl.poznan.put.cs.idss.jrs.rules.Rule.POSSIBLE) {
-						condition =
-								new ConditionAtLeastObjectVSThreshold<EvaluationField>(new EvaluationAttributeWithContext(rlAttribute, attributeIndex),
-								(new jRSField2rLField()).convertjRSField2rLField(relation.getReferenceValue(), rlAttribute.getPreferenceType()));
-					} else {
-						throw new UnsupportedOperationException("Could not convert jRS rule of type other than CERTAIN or POSSIBLE.");
-					}
-				}
+				relationType = RelationType.AT_LEAST;
 			} else {
 				if (relation instanceof RelationAtMost) {
-					if (jRSRuleType == pl.poznan.put.cs.idss.jrs.rules.Rule.CERTAIN) {
-						condition =
-								new ConditionAtMostThresholdVSObject<EvaluationField>(new EvaluationAttributeWithContext(rlAttribute, attributeIndex),
-								(new jRSField2rLField()).convertjRSField2rLField(relation.getReferenceValue(), rlAttribute.getPreferenceType()));
-					} else {
-						if (jRSRuleType == pl.poznan.put.cs.idss.jrs.rules.Rule.POSSIBLE) {
-							condition =
-									new ConditionAtMostObjectVSThreshold<EvaluationField>(new EvaluationAttributeWithContext(rlAttribute, attributeIndex),
-									(new jRSField2rLField()).convertjRSField2rLField(relation.getReferenceValue(), rlAttribute.getPreferenceType()));
-						} else {
-							throw new UnsupportedOperationException("Could not convert jRS rule of type other than CERTAIN or POSSIBLE");
-						}
-					}
+					relationType = RelationType.AT_MOST;
 				} else {
 					if (relation instanceof RelationEqual) {
-						if (jRSRuleType == pl.poznan.put.cs.idss.jrs.rules.Rule.CERTAIN) {
-							condition =
-									new ConditionEqualThresholdVSObject<EvaluationField>(new EvaluationAttributeWithContext(rlAttribute, attributeIndex),
-									(new jRSField2rLField()).convertjRSField2rLField(relation.getReferenceValue(), rlAttribute.getPreferenceType()));
-						} else {
-							if (jRSRuleType == pl.poznan.put.cs.idss.jrs.rules.Rule.POSSIBLE) {
-								condition =
-										new ConditionEqualObjectVSThreshold<EvaluationField>(new EvaluationAttributeWithContext(rlAttribute, attributeIndex),
-										(new jRSField2rLField()).convertjRSField2rLField(relation.getReferenceValue(), rlAttribute.getPreferenceType()));
-							} else {
-								throw new UnsupportedOperationException("Could not convert jRS rule of type other than CERTAIN or POSSIBLE");
-							}
-						}
+						relationType = RelationType.EQUAL;
 					} else {
 						throw new UnsupportedOperationException("Could not convert jRS relation other than >=, <= or =.");
 					}
@@ -160,6 +240,51 @@ public class Rules2RuleMLConverter {
 			throw new UnsupportedOperationException("Could not convert jRS condition other than single condition.");
 		}
 		
+		return convertCondition(jRSRuleType, relationType, jRSCondition.getAttributeInfo().getAttributeNumber(), rlAttribute,
+				fieldConverter.convertjRSField2rLField(relation.getReferenceValue(), rlAttribute.getPreferenceType()));
+	}
+	
+	/**
+	 * Constructs ruleLearn condition corresponding to a jRS condition with given relation and reference value (threshold).
+	 * 
+	 * @param jRSRuleType type of jRS rule that the condition is part of;
+	 *        has to be one of {@link pl.poznan.put.cs.idss.jrs.rules.Rule#CERTAIN} or {@link pl.poznan.put.cs.idss.jrs.rules.Rule#POSSIBLE}
+	 * @param relationType relation used in the condition
+	 * @param attributeIndex index of the attribute used in the condition
+	 * @param rlAttribute ruleLearn attribute to be used in the returned condition
+	 * @param threshold ruleLearn field corresponding to reference value of the condition
+	 * 
+	 * @return ruleLearn condition
+	 * @throws UnsupportedOperationException if {@code jRSRuleType} is neither {@link pl.poznan.put.cs.idss.jrs.rules.Rule#CERTAIN}
+	 *         nor {@link pl.poznan.put.cs.idss.jrs.rules.Rule#POSSIBLE}
+	 */
+	Condition<EvaluationField> convertCondition(int jRSRuleType, RelationType relationType, int attributeIndex, EvaluationAttribute rlAttribute, EvaluationField threshold) {
+		Condition<EvaluationField> condition;
+		
+		if (jRSRuleType != pl.poznan.put.cs.idss.jrs.rules.Rule.CERTAIN && jRSRuleType != pl.poznan.put.cs.idss.jrs.rules.Rule.POSSIBLE) {
+			throw new UnsupportedOperationException("Could not convert jRS rule of type other than CERTAIN or POSSIBLE.");
+		}
+		boolean certain = (jRSRuleType == pl.poznan.put.cs.idss.jrs.rules.Rule.CERTAIN);
+		
+		switch (relationType) {
+		case AT_LEAST:
+			condition = certain ?
+					new ConditionAtLeastThresholdVSObject<EvaluationField>(new EvaluationAttributeWithContext(rlAttribute, attributeIndex), threshold) :
+					new ConditionAtLeastObjectVSThreshold<EvaluationField>(new EvaluationAttributeWithContext(rlAttribute, attributeIndex), threshold);
+			break;
+		case AT_MOST:
+			condition = certain ?
+					new ConditionAtMostThresholdVSObject<EvaluationField>(new EvaluationAttributeWithContext(rlAttribute, attributeIndex), threshold) :
+					new ConditionAtMostObjectVSThreshold<EvaluationField>(new EvaluationAttributeWithContext(rlAttribute, attributeIndex), threshold);
+			break;
+		case EQUAL:
+			condition = certain ?
+					new ConditionEqualThresholdVSObject<EvaluationField>(new EvaluationAttributeWithContext(rlAttribute, attributeIndex), threshold) :
+					new ConditionEqualObjectVSThreshold<EvaluationField>(new EvaluationAttributeWithContext(rlAttribute, attributeIndex), threshold);
+			break;
+		default: throw new UnsupportedOperationException("Could not convert jRS relation other than >=, <= or =.");
+		}
+		
 		return condition;
 	}
 	
@@ -228,7 +353,7 @@ public class Rules2RuleMLConverter {
 	 * @throws InvalidValueException if given jRS rule has type other than {@link pl.poznan.put.cs.idss.jrs.rules.Rule.CERTAIN}
 	 *         or {@link pl.poznan.put.cs.idss.jrs.rules.Rule.POSSIBLE}
 	 */
-	RuleWithCharacteristics convertJRSRule2rlRule(pl.poznan.put.cs.idss.jrs.rules.Rule jRSRule, EvaluationAttribute[] rlAttributes) {
+	RuleWithCharacteristics convertJRSRule2rlRule(pl.poznan.put.cs.idss.jrs.rules.Rule jRSRule, EvaluationAttribute[] rlAttributes, jRSField2rLField fieldConverter) {
 		pl.poznan.put.cs.idss.jrs.rules.Condition[] jRSConditions = jRSRule.getConditionsAsArray();
 		pl.poznan.put.cs.idss.jrs.rules.Condition jRSDecision = jRSRule.getDecisions()[0];
 		
@@ -236,9 +361,9 @@ public class Rules2RuleMLConverter {
 		Condition<EvaluationField> decision;
 		
 		for (pl.poznan.put.cs.idss.jrs.rules.Condition jRSCondition : jRSConditions) {
-			conditions.add(convertSingleJRSCondition(jRSRule.getType(), jRSCondition, rlAttributes[jRSCondition.getAttributeInfo().getAttributeNumber()]));
+			conditions.add(convertSingleJRSCondition(jRSRule.getType(), jRSCondition, rlAttributes[jRSCondition.getAttributeInfo().getAttributeNumber()], fieldConverter));
 		}
-		decision = convertSingleJRSCondition(jRSRule.getType(), jRSDecision, rlAttributes[jRSDecision.getAttributeInfo().getAttributeNumber()]);
+		decision = convertSingleJRSCondition(jRSRule.getType(), jRSDecision, rlAttributes[jRSDecision.getAttributeInfo().getAttributeNumber()], fieldConverter);
 		
 		RuleType ruleType;
 		switch (jRSRule.getType()) {
@@ -257,9 +382,523 @@ public class Rules2RuleMLConverter {
 		return new RuleWithCharacteristics(rule, ruleCharacteristics);
 	}
 	
+	/**
+	 * Converts statistics of a rule, read by {@link RulesFileParser}, to {@link RuleCharacteristics characteristics of a ruleLearn rule}.
+	 * 
+	 * @param statistics statistics of a rule, mapping statistic's name to its textual value
+	 * @return {@link RuleCharacteristics characteristics of a ruleLearn rule}, corresponding to given rule statistics
+	 * 
+	 * @throws InvalidValueException if value of any statistic is not a number, or value of support, coverage, or negative coverage is not an integer number
+	 */
+	RuleCharacteristics convertParsedStatistics2RuleCharacteristics(Map<String, String> statistics) {
+		RuleCharacteristics ruleCharacteristics = new RuleCharacteristics();
+		String value = null;
+		
+		try {
+			if ((value = statistics.get(RulesFileParser.SUPPORT)) != null) {
+				ruleCharacteristics.setSupport(parseCount(value));
+			}
+			if ((value = statistics.get(RulesFileParser.STRENGTH)) != null) {
+				ruleCharacteristics.setStrength(Double.parseDouble(value));
+			}
+			if ((value = statistics.get(RulesFileParser.CONFIDENCE)) != null) {
+				ruleCharacteristics.setConfidence(Double.parseDouble(value));
+			}
+			if ((value = statistics.get(RulesFileParser.COVERAGE_FACTOR)) != null) {
+				ruleCharacteristics.setCoverageFactor(Double.parseDouble(value));
+			}
+			if ((value = statistics.get(RulesFileParser.COVERAGE)) != null) {
+				ruleCharacteristics.setCoverage(parseCount(value));
+			}
+			if ((value = statistics.get(RulesFileParser.NEGATIVE_COVERAGE)) != null) {
+				ruleCharacteristics.setNegativeCoverage(parseCount(value));
+			}
+			if ((value = statistics.get(RulesFileParser.INCONSISTENCY_MEASURE)) != null) {
+				ruleCharacteristics.setEpsilon(Double.parseDouble(value));
+			}
+			if ((value = statistics.get(RulesFileParser.EPSILON_PRIM_MEASURE)) != null) {
+				ruleCharacteristics.setEpsilonPrime(Double.parseDouble(value));
+			}
+			if ((value = statistics.get(RulesFileParser.F_CONFIRMATION_MEASURE)) != null) {
+				ruleCharacteristics.setFConfirmation(Double.parseDouble(value));
+			}
+			if ((value = statistics.get(RulesFileParser.A_CONFIRMATION_MEASURE)) != null) {
+				ruleCharacteristics.setAConfirmation(Double.parseDouble(value));
+			}
+			if ((value = statistics.get(RulesFileParser.Z_CONFIRMATION_MEASURE)) != null) {
+				ruleCharacteristics.setZConfirmation(Double.parseDouble(value));
+			}
+			if ((value = statistics.get(RulesFileParser.L_CONFIRMATION_MEASURE)) != null) {
+				ruleCharacteristics.setLConfirmation(Double.parseDouble(value));
+			}
+			if ((value = statistics.get(RulesFileParser.C1_CONFIRMATION_MEASURE)) != null) {
+				ruleCharacteristics.setC1Confirmation(Double.parseDouble(value));
+			}
+		} catch (NumberFormatException exception) {
+			throw new InvalidValueException("Incorrect value of rule statistic: " + value + ".");
+		}
+		
+		return ruleCharacteristics;
+	}
+	
+	/**
+	 * Parses number of objects (e.g., support of a rule), which may be written as an integer number, or as a floating-point number with zero fractional part
+	 * (e.g., "5.0").
+	 * 
+	 * @param value textual value of a statistic
+	 * @return parsed number of objects
+	 * 
+	 * @throws NumberFormatException if given value is not a number
+	 * @throws InvalidValueException if given value is not an integer number, or is out of the range of integer numbers
+	 */
+	static int parseCount(String value) {
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException exception) {
+			double count = Double.parseDouble(value); //throws NumberFormatException if value is not a number
+			if (count != Math.rint(count) || count < Integer.MIN_VALUE || count > Integer.MAX_VALUE) {
+				throw new InvalidValueException("Incorrect number of objects in rule statistic: " + value + ".");
+			}
+			return (int)count;
+		}
+	}
+	
+	/**
+	 * Converts given rule, read by {@link RulesFileParser}, to corresponding ruleLearn rule + its characteristics.
+	 * 
+	 * @param parsedRule rule read from *.rules file (along with its statistics)
+	 * @param rlAttributes ruleLearn attributes, as returned by {@link RulesFileParser#getAttributes()}
+	 * @param fieldConverter converter of jRS fields, using field cache of the current conversion
+	 * @return {@link RuleWithCharacteristics pair} composed of ruleLearn rule and its characteristics
+	 * 
+	 * @throws InvalidValueException if any value used in the rule does not match the type of the respective attribute
+	 */
+	RuleWithCharacteristics convertParsedRule2rlRule(RulesFileParser.ParsedRule parsedRule, EvaluationAttribute[] rlAttributes, jRSField2rLField fieldConverter) {
+		List<Condition<EvaluationField>> conditions = new ObjectArrayList<Condition<EvaluationField>>(parsedRule.getConditions().size());
+		
+		for (RulesFileParser.ParsedCondition parsedCondition : parsedRule.getConditions()) {
+			conditions.add(convertParsedCondition(parsedRule.getType(), parsedCondition, rlAttributes, fieldConverter));
+		}
+		Condition<EvaluationField> decision = convertParsedCondition(parsedRule.getType(), parsedRule.getDecision(), rlAttributes, fieldConverter);
+		
+		RuleType ruleType = (parsedRule.getType() == pl.poznan.put.cs.idss.jrs.rules.Rule.CERTAIN) ? RuleType.CERTAIN : RuleType.POSSIBLE; //type verified by parser
+		
+		Rule rule = new Rule(ruleType, conditions, decision);
+		RuleCharacteristics ruleCharacteristics = convertParsedStatistics2RuleCharacteristics(parsedRule.getStatistics());
+		
+		return new RuleWithCharacteristics(rule, ruleCharacteristics);
+	}
+	
+	/**
+	 * Converts single condition, read by {@link RulesFileParser}, into corresponding ruleLearn condition.
+	 * 
+	 * @param jRSRuleType type of rule that given condition is part of
+	 * @param parsedCondition condition read from *.rules file
+	 * @param rlAttributes ruleLearn attributes
+	 * @param fieldConverter converter of jRS fields, using field cache of the current conversion
+	 * @return ruleLearn condition corresponding to given condition
+	 */
+	private Condition<EvaluationField> convertParsedCondition(int jRSRuleType, RulesFileParser.ParsedCondition parsedCondition, EvaluationAttribute[] rlAttributes,
+			jRSField2rLField fieldConverter) {
+		EvaluationAttribute rlAttribute = rlAttributes[parsedCondition.getAttributeIndex()];
+		EvaluationField threshold = fieldConverter.convertjRSText2rLField(parsedCondition.getValue(), rlAttribute.getValueType(), rlAttribute.getPreferenceType());
+		
+		return convertCondition(jRSRuleType, parsedCondition.getRelationType(), parsedCondition.getAttributeIndex(), rlAttribute, threshold);
+	}
+	
+	/**
+	 * Gets index of the group of rules of given type and usage, following the order in which
+	 * {@link #convertRules2RuleMLUsingRulesContainer(String, String, String, boolean)} takes rules from {@link RulesContainer}.
+	 * 
+	 * @param jRSRuleType one of {@link pl.poznan.put.cs.idss.jrs.rules.Rule#CERTAIN} or {@link pl.poznan.put.cs.idss.jrs.rules.Rule#POSSIBLE}
+	 * @param jRSRuleUsage one of {@link pl.poznan.put.cs.idss.jrs.rules.Rule#AT_LEAST}, {@link pl.poznan.put.cs.idss.jrs.rules.Rule#AT_MOST},
+	 *        or {@link pl.poznan.put.cs.idss.jrs.rules.Rule#EQUAL}
+	 * @return index of the group of rules, from the range [0, {@link #RULE_GROUPS_COUNT}-1]
+	 */
+	int getRuleGroup(int jRSRuleType, int jRSRuleUsage) {
+		int usageOffset;
+		switch (jRSRuleUsage) {
+		case pl.poznan.put.cs.idss.jrs.rules.Rule.AT_LEAST:
+			usageOffset = 0;
+			break;
+		case pl.poznan.put.cs.idss.jrs.rules.Rule.AT_MOST:
+			usageOffset = 2;
+			break;
+		default:
+			usageOffset = 4;
+		}
+		return usageOffset + (jRSRuleType == pl.poznan.put.cs.idss.jrs.rules.Rule.CERTAIN ? 0 : 1);
+	}
+	
+	/**
+	 * Converts all rules returned by given parser to a set of ruleLearn rules with characteristics.
+	 * Rules are grouped in the same way as in {@link RulesContainer}: certain at least, possible at least, certain at most, ..., possible equal.
+	 * Thresholds of conditions are taken from the {@link RulesFileParser#getFieldCache() field cache} of given parser, which is released afterwards,
+	 * also if conversion fails (its statistics are printed if {@link #setPrintingFieldCacheStatistics(boolean) requested}, and it is cleared).
+	 * 
+	 * @param rulesFileParser parser of *.rules file, which has not returned any rule yet
+	 * @return set of ruleLearn rules along with their characteristics
+	 * 
+	 * @throws IOException if parsed file cannot be read
+	 * @throws InvalidValueException if any rule is incorrect
+	 */
+	RuleSetWithCharacteristics convertParsedRules2RuleSet(RulesFileParser rulesFileParser) throws IOException {
+		return convertParsedRules2RuleSet(rulesFileParser, null);
+	}
+	
+	/**
+	 * Converts all rules returned by given parser to a set of ruleLearn rules with characteristics, like {@link #convertParsedRules2RuleSet(RulesFileParser)},
+	 * and additionally stores numbers of converted rules in the *.rules file (see {@link RulesFileParser.ParsedRule#getNumber()}).
+	 * 
+	 * @param rulesFileParser parser of *.rules file, which has not returned any rule yet
+	 * @param ruleNumbers list to which numbers of the rules in the *.rules file are added, in the order of the rules in the returned set;
+	 *        if {@code null}, numbers are not stored
+	 * @return set of ruleLearn rules along with their characteristics
+	 * 
+	 * @throws IOException if parsed file cannot be read
+	 * @throws InvalidValueException if any rule is incorrect
+	 */
+	RuleSetWithCharacteristics convertParsedRules2RuleSet(RulesFileParser rulesFileParser, IntList ruleNumbers) throws IOException {
+		EvaluationAttribute[] rLAttributes = rulesFileParser.getAttributes();
+		jRSField2rLField fieldConverter = new jRSField2rLField(rulesFileParser.getFieldCache());
+		
+		List<List<RuleWithCharacteristics>> ruleGroups = new ObjectArrayList<List<RuleWithCharacteristics>>(RULE_GROUPS_COUNT);
+		List<IntList> ruleNumberGroups = new ObjectArrayList<IntList>(RULE_GROUPS_COUNT);
+		for (int i = 0; i < RULE_GROUPS_COUNT; i++) {
+			ruleGroups.add(new ObjectArrayList<RuleWithCharacteristics>());
+			ruleNumberGroups.add(new IntArrayList());
+		}
+		
+		BatchPipeline.Sink<RulesFileParser.ParsedRule> converter = parsedRule -> {
+			int ruleGroup = getRuleGroup(parsedRule.getType(), parsedRule.getUsage());
+			ruleGroups.get(ruleGroup).add(convertParsedRule2rlRule(parsedRule, rLAttributes, fieldConverter));
+			ruleNumberGroups.get(ruleGroup).add(parsedRule.getNumber());
+		};
+		
+		try {
+			if (pipelined) {
+				BatchPipeline.run(rulesFileParser::nextRule, converter, "rules-parser");
+			} else {
+				RulesFileParser.ParsedRule parsedRule;
+				while ((parsedRule = rulesFileParser.nextRule()) != null) {
+					converter.accept(parsedRule);
+				}
+			}
+		} finally {
+			releaseFieldCache(rulesFileParser.getFieldCache());
+		}
+		
+		if (ruleNumbers != null) {
+			for (IntList ruleNumberGroup : ruleNumberGroups) {
+				ruleNumbers.addAll(ruleNumberGroup);
+			}
+		}
+		
+		return toRuleSet(ruleGroups);
+	}
+	
+	/**
+	 * Joins given groups of rules into a set of rules, and clears the groups.
+	 * 
+	 * @param ruleGroups groups of rules along with their characteristics, in the order in which they should appear in the set
+	 * @return set of ruleLearn rules along with their characteristics
+	 */
+	private RuleSetWithCharacteristics toRuleSet(List<List<RuleWithCharacteristics>> ruleGroups) {
+		int rulesCount = 0;
+		for (List<RuleWithCharacteristics> ruleGroup : ruleGroups) {
+			rulesCount += ruleGroup.size();
+		}
+		
+		Rule[] rlRules = new Rule[rulesCount]; //rules in ruleLearn's RuleML format
+		RuleCharacteristics[] rlRuleCharacteristics = new RuleCharacteristics[rulesCount];
+		
+		int index = 0;
+		for (List<RuleWithCharacteristics> ruleGroup : ruleGroups) {
+			for (RuleWithCharacteristics rLRuleWithCharacteristics : ruleGroup) {
+				rlRules[index] = rLRuleWithCharacteristics.rule;
+				rlRuleCharacteristics[index] = rLRuleWithCharacteristics.ruleCharacteristics;
+				index++;
+			}
+			ruleGroup.clear();
+		}
+		
+		return new RuleSetWithCharacteristics(rlRules, rlRuleCharacteristics, true);
+	}
+	
+	/**
+	 * Converts all rules returned by given parser and writes them to given writer, in RuleML format. Written document is the same as the one written by
+	 * {@link #writeRuleML(RuleSetWithCharacteristics, Writer)} for the set returned by {@link #convertParsedRules2RuleSet(RulesFileParser)},
+	 * but rules are serialized in batches of {@link BatchPipeline#BATCH_SIZE} rules (see {@link RuleMLStreamWriter}).
+	 * Certain at least rules, which come first in RuleML document, are serialized and written as soon as a batch of them is converted,
+	 * and are not kept in memory, unless requested. Rules from other groups are kept until all rules are converted, as rules from the preceding groups
+	 * may still follow in the *.rules file. In pipelined mode, rules are parsed in a separate thread (see {@link #convertParsedRules2RuleSet(RulesFileParser)}),
+	 * and batches of converted rules are serialized and written in another thread, passed to it through a bounded queue.
+	 * Field cache of given parser is released afterwards, also if conversion fails.
+	 * 
+	 * @param rulesFileParser parser of *.rules file, which has not returned any rule yet
+	 * @param ruleMLWriter writer to which rules should be written in RuleML format; not flushed, nor closed
+	 * @param keepingRules tells if all converted rules should be kept and returned (e.g., to build {@link RuleIndex index of the rules})
+	 * @return set of ruleLearn rules along with their characteristics, if {@code keepingRules} is {@code true}, {@code null} otherwise
+	 * 
+	 * @throws IOException if parsed file cannot be read or given writer cannot be written
+	 * @throws InvalidValueException if any rule is incorrect
+	 */
+	RuleSetWithCharacteristics convertParsedRules2RuleML(RulesFileParser rulesFileParser, Writer ruleMLWriter, boolean keepingRules) throws IOException {
+		EvaluationAttribute[] rLAttributes = rulesFileParser.getAttributes();
+		jRSField2rLField fieldConverter = new jRSField2rLField(rulesFileParser.getFieldCache());
+		
+		List<List<RuleWithCharacteristics>> ruleGroups = new ObjectArrayList<List<RuleWithCharacteristics>>(RULE_GROUPS_COUNT);
+		for (int i = 0; i < RULE_GROUPS_COUNT; i++) {
+			ruleGroups.add(new ObjectArrayList<RuleWithCharacteristics>());
+		}
+		List<RuleWithCharacteristics> firstGroupBatch = new ObjectArrayList<RuleWithCharacteristics>(BatchPipeline.BATCH_SIZE);
+		
+		RuleMLStreamWriter ruleMLStreamWriter = new RuleMLStreamWriter(ruleMLWriter);
+		BatchPipeline.BatchSink<RuleWithCharacteristics> serializer = BatchPipeline.startSink(batch -> {
+			Rule[] rlRules = new Rule[batch.size()];
+			RuleCharacteristics[] rlRuleCharacteristics = new RuleCharacteristics[batch.size()];
+			for (int i = 0; i < rlRules.length; i++) {
+				rlRules[i] = batch.get(i).rule;
+				rlRuleCharacteristics[i] = batch.get(i).ruleCharacteristics;
+			}
+			ruleMLStreamWriter.write(rlRules, rlRuleCharacteristics);
+		}, "ruleml-serializer", pipelined);
+		
+		BatchPipeline.Sink<RulesFileParser.ParsedRule> converter = parsedRule -> {
+			int ruleGroup = getRuleGroup(parsedRule.getType(), parsedRule.getUsage());
+			RuleWithCharacteristics rLRuleWithCharacteristics = convertParsedRule2rlRule(parsedRule, rLAttributes, fieldConverter);
+			
+			if (ruleGroup == 0) {
+				firstGroupBatch.add(rLRuleWithCharacteristics);
+				if (firstGroupBatch.size() == BatchPipeline.BATCH_SIZE) {
+					serializer.put(new ObjectArrayList<RuleWithCharacteristics>(firstGroupBatch));
+					firstGroupBatch.clear();
+				}
+				if (keepingRules) {
+					ruleGroups.get(ruleGroup).add(rLRuleWithCharacteristics);
+				}
+			} else {
+				ruleGroups.get(ruleGroup).add(rLRuleWithCharacteristics);
+			}
+		};
+		
+		try {
+			if (pipelined) {
+				BatchPipeline.run(rulesFileParser::nextRule, converter, "rules-parser");
+			} else {
+				RulesFileParser.ParsedRule parsedRule;
+				while ((parsedRule = rulesFileParser.nextRule()) != null) {
+					converter.accept(parsedRule);
+				}
+			}
+			
+			if (!firstGroupBatch.isEmpty()) {
+				serializer.put(firstGroupBatch);
+			}
+			for (int i = 1; i < RULE_GROUPS_COUNT; i++) {
+				List<RuleWithCharacteristics> ruleGroup = ruleGroups.get(i);
+				for (int from = 0; from < ruleGroup.size(); from += BatchPipeline.BATCH_SIZE) {
+					serializer.put(ruleGroup.subList(from, Math.min(from + BatchPipeline.BATCH_SIZE, ruleGroup.size())));
+				}
+			}
+			serializer.finish();
+		} finally {
+			serializer.cancel(); //no effect if serializer has finished
+			releaseFieldCache(rulesFileParser.getFieldCache());
+		}
+		ruleMLStreamWriter.finish();
+		
+		return keepingRules ? toRuleSet(ruleGroups) : null;
+	}
+	
 	/**
 	 * Converts *.rules file produced by jRS library (storing attributes and decision rules) to a pair of ruleLearn files:
 	 * JSON file with metadata (attributes) and XML file with the rules, in RuleML format.
+	 * Reads *.rules file using {@link RulesFileParser}, i.e., converts rules one at a time, without loading jRS {@link RulesContainer}.
+	 * Rules are written in the same order as in {@link #convertRules2RuleMLUsingRulesContainer(String, String, String, boolean)}.
+	 * 
+	 * @param rulesFilePath path to input *.rules file containing information about attributes and rules (possibly along with their statistics)
+	 * @param jsonAttributesFilePath path to output file where metadata (attributes) should be written in JSON format
+	 * @param ruleMLFilePath path to output XML file where rules should be written in RuleML format
+	 * @param prettyPrinting tells if pretty printing in the two output files should be applied
+	 * 
+	 * @throws InvalidValueException if any attribute has incorrect preference type or type (kind), or if any rule is incorrect
+	 * @throws UnsupportedOperationException if any attribute has value of type other than integer, float, or enum
+	 */
+	void convertRules2RuleML(String rulesFilePath, String jsonAttributesFilePath, String ruleMLFilePath, boolean prettyPrinting) {
+		convertRules2RuleML(rulesFilePath, jsonAttributesFilePath, ruleMLFilePath, null, prettyPrinting);
+	}
+	
+	/**
+	 * Converts *.rules file produced by jRS library to a pair of ruleLearn files, like {@link #convertRules2RuleML(String, String, String, boolean)},
+	 * and additionally writes {@link RuleIndex index of the rules} to a sidecar file.
+	 * 
+	 * @param rulesFilePath path to input *.rules file containing information about attributes and rules (possibly along with their statistics)
+	 * @param jsonAttributesFilePath path to output file where metadata (attributes) should be written in JSON format
+	 * @param ruleMLFilePath path to output XML file where rules should be written in RuleML format
+	 * @param ruleIndexFilePath path to output file where index of the rules should be written; if {@code null}, index is not written
+	 * @param prettyPrinting tells if pretty printing in the two output files should be applied
+	 * @return {@code true} if all output files have been written, {@code false} otherwise
+	 * 
+	 * @throws InvalidValueException if any attribute has incorrect preference type or type (kind), or if any rule is incorrect
+	 * @throws UnsupportedOperationException if any attribute has value of type other than integer, float, or enum
+	 */
+	boolean convertRules2RuleML(String rulesFilePath, String jsonAttributesFilePath, String ruleMLFilePath, String ruleIndexFilePath, boolean prettyPrinting) {
+		try (RulesFileParser rulesFileParser = new RulesFileParser(rulesFilePath, createFieldCache())) {
+			EvaluationAttribute[] rLAttributes = rulesFileParser.getAttributes();
+			
+			Future<Boolean> attributesWritten = BatchPipeline.startStage(
+					() -> writeAttributes(rLAttributes, jsonAttributesFilePath, prettyPrinting), "attributes-writer", pipelined);
+			
+			//---
+			
+			RuleSetWithCharacteristics ruleSetWithCharacteristics;
+			try (Writer ruleMLWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(ruleMLFilePath), StandardCharsets.UTF_8))) {
+				ruleSetWithCharacteristics = convertParsedRules2RuleML(rulesFileParser, ruleMLWriter, ruleIndexFilePath != null);
+			} catch (IOException | RuntimeException | Error exception) {
+				BatchPipeline.awaitStage(attributesWritten, exception);
+				throw exception;
+			}
+			OM.println("Rules written to file " + ruleMLFilePath);
+			
+			boolean written = BatchPipeline.getResult(attributesWritten);
+			if (ruleIndexFilePath != null) {
+				written = writeRuleIndex(new RuleIndex(ruleSetWithCharacteristics, rLAttributes), ruleIndexFilePath) && written;
+			}
+			
+			return written;
+		}
+		catch (FileNotFoundException exception) {
+			OM.println("Rules could not be read from file " + rulesFilePath);
+		}
+		catch (IOException ex) {
+			OM.println(ex.toString());
+		}
+		return false;
+	}
+	
+	/**
+	 * Converts *.rules file produced by jRS library, read from given reader, to ruleLearn attributes (metadata) in JSON format
+	 * and ruleLearn rules in RuleML format, written to given writers. No intermediate files are used.
+	 * Attributes are written (and flushed) before rules are converted.
+	 * 
+	 * @param rulesReader reader of *.rules file; read to its end, but not closed
+	 * @param jsonAttributesWriter writer to which metadata (attributes) should be written in JSON format; flushed, but not closed
+	 * @param ruleMLWriter writer to which rules should be written in RuleML format; flushed, but not closed
+	 * @param prettyPrinting tells if pretty printing in JSON output should be applied
+	 * 
+	 * @throws IOException if given reader cannot be read or any of given writers cannot be written
+	 * @throws InvalidValueException if any attribute has incorrect preference type or type (kind), or if any rule is incorrect
+	 * @throws UnsupportedOperationException if any attribute has value of type other than integer, float, or enum
+	 */
+	public void convertRules2RuleML(Reader rulesReader, Writer jsonAttributesWriter, Writer ruleMLWriter, boolean prettyPrinting) throws IOException {
+		try (RulesFileParser rulesFileParser = new RulesFileParser(StandardStreams.nonClosing(rulesReader), createFieldCache())) {
+			convertParsedRules2RuleML(rulesFileParser, jsonAttributesWriter, ruleMLWriter, prettyPrinting, false);
+		}
+	}
+	
+	/**
+	 * Converts *.rules file produced by jRS library, read from given input stream, to ruleLearn attributes (metadata) in JSON format
+	 * and ruleLearn rules in RuleML format, written to given output streams, like {@link #convertRules2RuleML(Reader, Writer, Writer, boolean)}.
+	 * Text is read and written in UTF-8 encoding.
+	 * 
+	 * @param rulesInputStream input stream with *.rules file (e.g., {@link System#in}); read to its end, but not closed
+	 * @param jsonAttributesOutputStream output stream to which metadata (attributes) should be written in JSON format; flushed, but not closed
+	 * @param ruleMLOutputStream output stream to which rules should be written in RuleML format; flushed, but not closed
+	 * @param prettyPrinting tells if pretty printing in JSON output should be applied
+	 * 
+	 * @throws IOException if given input stream cannot be read or any of given output streams cannot be written
+	 * @throws InvalidValueException if any attribute has incorrect preference type or type (kind), or if any rule is incorrect
+	 * @throws UnsupportedOperationException if any attribute has value of type other than integer, float, or enum
+	 */
+	public void convertRules2RuleML(InputStream rulesInputStream, OutputStream jsonAttributesOutputStream, OutputStream ruleMLOutputStream, boolean prettyPrinting) throws IOException {
+		convertRules2RuleML(new InputStreamReader(rulesInputStream, StandardCharsets.UTF_8),
+				new BufferedWriter(new OutputStreamWriter(jsonAttributesOutputStream, StandardCharsets.UTF_8)),
+				new BufferedWriter(new OutputStreamWriter(ruleMLOutputStream, StandardCharsets.UTF_8)), prettyPrinting);
+	}
+	
+	/**
+	 * Converts *.rules file to a pair of ruleLearn files, like {@link #convertRules2RuleML(String, String, String, String, boolean)},
+	 * but any of the paths except path of the index may be {@link StandardStreams#STANDARD_STREAM_PATH}, denoting standard input or standard output.
+	 * Standard streams are not closed. Only one of the outputs can be written to standard output.
+	 * 
+	 * @param rulesFilePath path to input *.rules file, or "-" for standard input
+	 * @param jsonAttributesFilePath path to output file where metadata (attributes) should be written in JSON format, or "-" for standard output
+	 * @param ruleMLFilePath path to output XML file where rules should be written in RuleML format, or "-" for standard output
+	 * @param ruleIndexFilePath path to output file where index of the rules should be written; if {@code null}, index is not written
+	 * @param prettyPrinting tells if pretty printing in JSON output should be applied
+	 * @param standardOutput standard output, as returned by {@link StandardStreams#reserveStandardOutput()}
+	 * @return {@code true} if all outputs have been written, {@code false} otherwise
+	 * 
+	 * @throws InvalidValueException if any attribute has incorrect preference type or type (kind), or if any rule is incorrect
+	 * @throws UnsupportedOperationException if any attribute has value of type other than integer, float, or enum
+	 */
+	boolean convertRules2RuleML(String rulesFilePath, String jsonAttributesFilePath, String ruleMLFilePath, String ruleIndexFilePath, boolean prettyPrinting,
+			PrintStream standardOutput) {
+		if (StandardStreams.isStandardStream(jsonAttributesFilePath) && StandardStreams.isStandardStream(ruleMLFilePath)) {
+			OM.println("Only one of the output files can be written to standard output.");
+			return false;
+		}
+		try (RulesFileParser rulesFileParser = new RulesFileParser(new InputStreamReader(StandardStreams.openInputStream(rulesFilePath), StandardCharsets.UTF_8), createFieldCache());
+				Writer jsonAttributesWriter = new OutputStreamWriter(StandardStreams.openOutputStream(jsonAttributesFilePath, standardOutput), StandardCharsets.UTF_8);
+				Writer ruleMLWriter = new OutputStreamWriter(StandardStreams.openOutputStream(ruleMLFilePath, standardOutput), StandardCharsets.UTF_8)) {
+			RuleSetWithCharacteristics ruleSetWithCharacteristics = convertParsedRules2RuleML(rulesFileParser, jsonAttributesWriter, ruleMLWriter, prettyPrinting,
+					ruleIndexFilePath != null);
+			
+			if (ruleIndexFilePath != null) {
+				return writeRuleIndex(new RuleIndex(ruleSetWithCharacteristics, rulesFileParser.getAttributes()), ruleIndexFilePath);
+			}
+			return true;
+		}
+		catch (FileNotFoundException exception) {
+			OM.println(exception.toString());
+		}
+		catch (IOException ex) {
+			OM.println(ex.toString());
+		}
+		return false;
+	}
+	
+	/**
+	 * Converts attributes and rules returned by given parser, writing them to given writers.
+	 * Rules are written to RuleML writer while they are converted (see {@link #convertParsedRules2RuleML(RulesFileParser, Writer, boolean)}).
+	 * 
+	 * @param rulesFileParser parser of *.rules file, which has not returned any rule yet
+	 * @param jsonAttributesWriter writer to which metadata (attributes) should be written in JSON format; flushed, but not closed
+	 * @param ruleMLWriter writer to which rules should be written in RuleML format; flushed, but not closed
+	 * @param prettyPrinting tells if pretty printing in JSON output should be applied
+	 * @param keepingRules tells if all converted rules should be kept and returned
+	 * @return converted rules along with their characteristics, if {@code keepingRules} is {@code true}, {@code null} otherwise
+	 * 
+	 * @throws IOException if parsed file cannot be read or any of given writers cannot be written
+	 * @throws InvalidValueException if any rule is incorrect
+	 */
+	RuleSetWithCharacteristics convertParsedRules2RuleML(RulesFileParser rulesFileParser, Writer jsonAttributesWriter, Writer ruleMLWriter, boolean prettyPrinting,
+			boolean keepingRules) throws IOException {
+		Future<Void> attributesWritten = BatchPipeline.startStage(() -> {
+			writeAttributes(rulesFileParser.getAttributes(), jsonAttributesWriter, prettyPrinting);
+			jsonAttributesWriter.flush();
+			return null;
+		}, "attributes-writer", pipelined);
+		
+		RuleSetWithCharacteristics ruleSetWithCharacteristics;
+		try {
+			ruleSetWithCharacteristics = convertParsedRules2RuleML(rulesFileParser, ruleMLWriter, keepingRules);
+			ruleMLWriter.flush();
+		} catch (IOException | RuntimeException | Error exception) {
+			BatchPipeline.awaitStage(attributesWritten, exception); //attributes writer may still use given writer
+			throw exception;
+		}
+		BatchPipeline.getResult(attributesWritten);
+		
+		return ruleSetWithCharacteristics;
+	}
+	
+	/**
+	 * Converts *.rules file produced by jRS library (storing attributes and decision rules) to a pair of ruleLearn files:
+	 * JSON file with metadata (attributes) and XML file with the rules, in RuleML format.
+	 * Loads whole *.rules file into jRS {@link RulesContainer} before conversion.
+	 * Used in tests as a reference for {@link #convertRules2RuleML(String, String, String, boolean)}, which has to produce the same output.
 	 * 
 	 * @param rulesFilePath path to input *.rules file containing information about attributes and rules (possibly along with their statistics)
 	 * @param jsonAttributesFilePath path to output file where metadata (attributes) should be written in JSON format
@@ -269,7 +908,7 @@ public class Rules2RuleMLConverter {
 	 * @throws InvalidValueException if any attribute has incorrect preference type or type (kind)
 	 * @throws UnsupportedOperationException if any jRS attribute has initial value of type other than integer, float, or enum
 	 */
-	void convertRules2RuleML(String rulesFilePath, String jsonAttributesFilePath, String ruleMLFilePath, boolean prettyPrinting) {
+	void convertRules2RuleMLUsingRulesContainer(String rulesFilePath, String jsonAttributesFilePath, String ruleMLFilePath, boolean prettyPrinting) {
 		RulesContainer ruleContainer;
 		try {
 			ruleContainer = RulesContainer.loadRules(rulesFilePath, new SimpleParseLog());
@@ -279,21 +918,11 @@ public class Rules2RuleMLConverter {
 		}
 		
 		if (ruleContainer != null) {
-			EvaluationAttribute[] rLAttributes = (new jRSAttributes2rLAttributes()).convertJRSAttributes2rLAttributes(ruleContainer.getLearningAttributes());
-			
-			InformationTable informationTable = new InformationTable(rLAttributes, new ObjectArrayList<Field[]>(), true); //empty list of rows (i.e., no objects!)
-			
-			InformationTableWriter informationTableWriter = new InformationTableWriter(prettyPrinting);
-			OM.println("Pretty printing in JSON file with metadata (attributes) set to: " + prettyPrinting);
+			FieldCache fieldCache = createFieldCache();
+			jRSField2rLField fieldConverter = new jRSField2rLField(fieldCache);
+			EvaluationAttribute[] rLAttributes = (new jRSAttributes2rLAttributes(fieldCache)).convertJRSAttributes2rLAttributes(ruleContainer.getLearningAttributes());
 			
-			try (FileWriter fileWriter = new FileWriter(jsonAttributesFilePath)) {
-				informationTableWriter.writeAttributes(informationTable, fileWriter);
-				OM.println("Attributes written to file " + jsonAttributesFilePath);
-				
-			}
-			catch (IOException ex) {
-				OM.println(ex.toString());
-			}
+			writeAttributes(rLAttributes, jsonAttributesFilePath, prettyPrinting);
 			
 			//---
 			
@@ -327,44 +956,116 @@ public class Rules2RuleMLConverter {
 			RuleWithCharacteristics rLRuleWithCharacteristics;
 			
 			int index = 0;
-			for (pl.poznan.put.cs.idss.jrs.rules.Rule jRSRule : jRSRules) {
-				rLRuleWithCharacteristics = convertJRSRule2rlRule(jRSRule, rLAttributes);
-				rlRules[index] = rLRuleWithCharacteristics.rule;
-				rlRuleCharacteristics[index] = rLRuleWithCharacteristics.ruleCharacteristics;
-				index++;
+			try {
+				for (pl.poznan.put.cs.idss.jrs.rules.Rule jRSRule : jRSRules) {
+					rLRuleWithCharacteristics = convertJRSRule2rlRule(jRSRule, rLAttributes, fieldConverter);
+					rlRules[index] = rLRuleWithCharacteristics.rule;
+					rlRuleCharacteristics[index] = rLRuleWithCharacteristics.ruleCharacteristics;
+					index++;
+				}
+			} finally {
+				releaseFieldCache(fieldCache);
 			}
 			
-			VolatileCachesCleaner.clearVolatileCaches(rLAttributes); //clear volatile caches of all used evaluation field caching factories
-			
 			writeRuleML(new RuleSetWithCharacteristics(rlRules, rlRuleCharacteristics, true), ruleMLFilePath);
 		} //if
 	}
 	
+	/**
+	 * Writes to file, in JSON format, given attributes (metadata).
+	 * 
+	 * @param rLAttributes ruleLearn attributes
+	 * @param jsonAttributesFilePath path to output file where metadata (attributes) should be written in JSON format
+	 * @param prettyPrinting tells if pretty printing should be applied
+	 * @return {@code true} if attributes have been written, {@code false} otherwise
+	 */
+	boolean writeAttributes(EvaluationAttribute[] rLAttributes, String jsonAttributesFilePath, boolean prettyPrinting) {
+		OM.println("Pretty printing in JSON file with metadata (attributes) set to: " + prettyPrinting);
+		
+		try (Writer fileWriter = new OutputStreamWriter(new FileOutputStream(jsonAttributesFilePath), StandardCharsets.UTF_8)) {
+			writeAttributes(rLAttributes, fileWriter, prettyPrinting);
+			OM.println("Attributes written to file " + jsonAttributesFilePath);
+		}
+		catch (IOException ex) {
+			OM.println(ex.toString());
+			return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Writes to given writer, in JSON format, given attributes (metadata).
+	 * 
+	 * @param rLAttributes ruleLearn attributes
+	 * @param jsonAttributesWriter writer to which metadata (attributes) should be written in JSON format
+	 * @param prettyPrinting tells if pretty printing should be applied
+	 * 
+	 * @throws IOException if given writer cannot be written
+	 */
+	void writeAttributes(EvaluationAttribute[] rLAttributes, Writer jsonAttributesWriter, boolean prettyPrinting) throws IOException {
+		InformationTable informationTable = new InformationTable(rLAttributes, new ObjectArrayList<Field[]>(), true); //empty list of rows (i.e., no objects!)
+		(new InformationTableWriter(prettyPrinting)).writeAttributes(informationTable, jsonAttributesWriter);
+	}
+	
 	/**
 	 * Writes to file, in RuleML format, given rules and their characteristics.
 	 * 
 	 * @param ruleSetWithCharacteristics set of rules along with their characteristics
 	 * @param ruleMLFilePath path to disk file where rules and their characteristics should be written in RuleML format
+	 * @return {@code true} if rules have been written, {@code false} otherwise
 	 */
-	void writeRuleML(RuleSetWithCharacteristics ruleSetWithCharacteristics, String ruleMLFilePath) {
-		RuleMLBuilder ruleMLBuilder = new RuleMLBuilder();
-		String ruleML = ruleMLBuilder.toRuleMLString(ruleSetWithCharacteristics, 1);
-		
-		try (FileWriter fileWriter = new FileWriter(ruleMLFilePath)) {
-			fileWriter.write(ruleML);
+	boolean writeRuleML(RuleSetWithCharacteristics ruleSetWithCharacteristics, String ruleMLFilePath) {
+		try (Writer fileWriter = new OutputStreamWriter(new FileOutputStream(ruleMLFilePath), StandardCharsets.UTF_8)) {
+			writeRuleML(ruleSetWithCharacteristics, fileWriter);
 			OM.println("Rules written to file " + ruleMLFilePath);
 			fileWriter.close();
 		}
 		catch (IOException ex) {
 			OM.println(ex.toString());
+			return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Writes to given writer, in RuleML format, given rules and their characteristics.
+	 * 
+	 * @param ruleSetWithCharacteristics set of rules along with their characteristics
+	 * @param ruleMLWriter writer to which rules and their characteristics should be written in RuleML format
+	 * 
+	 * @throws IOException if given writer cannot be written
+	 */
+	void writeRuleML(RuleSetWithCharacteristics ruleSetWithCharacteristics, Writer ruleMLWriter) throws IOException {
+		RuleMLBuilder ruleMLBuilder = new RuleMLBuilder();
+		ruleMLWriter.write(ruleMLBuilder.toRuleMLString(ruleSetWithCharacteristics, RuleMLStreamWriter.RULE_SET_INDEX));
+	}
+	
+	/**
+	 * Writes to file given index of rules.
+	 * 
+	 * @param ruleIndex index of rules
+	 * @param ruleIndexFilePath path to disk file where index of rules should be written
+	 * @return {@code true} if index has been written, {@code false} otherwise
+	 */
+	boolean writeRuleIndex(RuleIndex ruleIndex, String ruleIndexFilePath) {
+		try {
+			ruleIndex.write(ruleIndexFilePath);
+			OM.println("Rule index written to file " + ruleIndexFilePath);
+		}
+		catch (IOException ex) {
+			OM.println(ex.toString());
+			return false;
 		}
+		return true;
 	}
 	
 	/**
 	 * Application entry point.
 	 * 
 	 * @param args input arguments of this converter.
-	 *        Syntax: Rules2RuleMLConverter <rules-file-path> <JSON-attributes-file-path> <ruleML-file-path> <use-pretty-printing>
+	 *        Syntax: Rules2RuleMLConverter <rules-file-path> <JSON-attributes-file-path> <ruleML-file-path> <use-pretty-printing> [<rule-index-file-path>],
+	 *        where "-" may be given instead of the path to *.rules file (standard input), and instead of one of the paths to output files (standard output);
+	 *        if the last argument is "pipelined", conversion is run in pipelined mode (see {@link #Rules2RuleMLConverter(int, FieldCache.EvictionPolicy, boolean)})
 	 * @throws UnsupportedOperationException when rules cannot be converted from jRS rules file to a pair of ruleLearn JSON file with attributes
 	 *         and XML file with rules in RuleML format
 	 */
@@ -374,22 +1075,40 @@ public class Rules2RuleMLConverter {
 		//- only EvaluationAttribute attributes are produced
 		//- missing value type of produced attributes is set to UnknownSimpleFieldMV2
 		
+		boolean pipelined = args.length > 3 && args[args.length - 1].strip().equalsIgnoreCase("pipelined");
+		int argsCount = pipelined ? args.length - 1 : args.length;
+		boolean usesStandardOutput = argsCount >= 3 && (StandardStreams.isStandardStream(args[1]) || StandardStreams.isStandardStream(args[2]));
+		PrintStream standardOutput = usesStandardOutput ? StandardStreams.reserveStandardOutput() : System.out; //if converted data go to standard output, messages go to standard error
+		
 		//set system console as default message output
 		SystemOut systemOut = new SystemOut();
 		OM.addOutput(systemOut);
 		OM.setDefaultOutput(systemOut.getKey());
 		
-		if (args.length < 3) {
+		if (argsCount < 3) {
 			OM.println("Wrong number of parameters.");
 			OM.println("Syntax:");
-			OM.println("Rules2RuleMLConverter <rules-file-path> <JSON-attributes-file-path> <ruleML-file-path> <pretty>");
+			OM.println("Rules2RuleMLConverter <rules-file-path> <JSON-attributes-file-path> <ruleML-file-path> <pretty> [<rule-index-file-path>] [pipelined]");
+			OM.println("Use - instead of the rules file path to read from standard input, or instead of one of the output file paths to write to standard output.");
 			OM.println("Example:");
 			OM.println("Rules2RuleMLConverter GermanCredit.rules GermanCredit.meta.json GermanCredit.rules.xml pretty");
 			return;
 		}
+		if (StandardStreams.isStandardStream(args[1]) && StandardStreams.isStandardStream(args[2])) {
+			OM.println("Only one of the output files can be written to standard output.");
+			return;
+		}
+		
+		Rules2RuleMLConverter rules2RuleMLConverter = new Rules2RuleMLConverter(FieldCache.DEFAULT_CAPACITY, FieldCache.EvictionPolicy.LRU, pipelined);
+		rules2RuleMLConverter.setPrintingFieldCacheStatistics(true);
+		boolean prettyPrinting = argsCount > 3 && args[3].strip().equalsIgnoreCase("pretty");
+		String ruleIndexFilePath = argsCount > 4 ? args[4] : null;
 		
-		Rules2RuleMLConverter rules2RuleMLConverter = new Rules2RuleMLConverter();
-		rules2RuleMLConverter.convertRules2RuleML(args[0], args[1], args[2], args.length > 3 && args[3].strip().equalsIgnoreCase("pretty"));
+		if (StandardStreams.isStandardStream(args[0]) || usesStandardOutput) {
+			rules2RuleMLConverter.convertRules2RuleML(args[0], args[1], args[2], ruleIndexFilePath, prettyPrinting, standardOutput);
+		} else {
+			rules2RuleMLConverter.convertRules2RuleML(args[0], args[1], args[2], ruleIndexFilePath, prettyPrinting);
+		}
 	}
 	
 }
@@ -0,0 +1,968 @@
+/**
+ * Copyright (C) Marcin Szeląg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rulelearn.converters;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+
+import org.rulelearn.core.InvalidValueException;
+import org.rulelearn.data.AttributePreferenceType;
+import org.rulelearn.data.AttributeType;
+import org.rulelearn.data.EvaluationAttribute;
+import org.rulelearn.types.ElementList;
+import org.rulelearn.types.EvaluationField;
+import org.rulelearn.types.UnknownSimpleFieldMV2;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * Streaming parser of *.rules files, used in jRS library to store decision rules.
+ * Reads sections [ATTRIBUTES] and [PREFERENCES] once, when the parser is constructed, and then returns rules one at a time
+ * (see {@link #nextRule()}), without building jRS rules container in memory.
+ * If given file contains section [RULESINFO], rules are read from that section, together with their statistics.
+ * Otherwise, rules are read from section [RULES], and have no statistics.<br>
+ * <br>
+ * Parsed file, given by its path (and then read in UTF-8 encoding) or as a reader (e.g., standard input), is read only once.
+ * Section [RULES] is kept until it is known whether section [RULESINFO] follows - in memory, if it has at most
+ * {@link #RULES_SECTION_MEMORY_LIMIT} characters, or in a temporary file otherwise. Kept section is dropped as soon as section [RULESINFO] is found.
+ * Sections [ATTRIBUTES] and [PREFERENCES] have to precede section [RULES].<br>
+ * <br>
+ * Conditions of rules are split into attribute name, relation, and value using names of the attributes read from the file,
+ * so attribute names and enum values may contain spaces, relations, ampersands, and parentheses.
+ *
+ * @author Marcin Szeląg (<a href="mailto:marcin.szelag@cs.put.poznan.pl">marcin.szelag@cs.put.poznan.pl</a>)
+ */
+public class RulesFileParser implements Closeable {
+
+	/**
+	 * Relation used in a single condition of a rule.
+	 */
+	public enum RelationType {
+		/**
+		 * Relation >=.
+		 */
+		AT_LEAST,
+		/**
+		 * Relation <=.
+		 */
+		AT_MOST,
+		/**
+		 * Relation =.
+		 */
+		EQUAL
+	}
+
+	/**
+	 * Single condition of a rule, as read from *.rules file.
+	 *
+	 * @author Marcin Szeląg
+	 */
+	public static class ParsedCondition {
+		private int attributeIndex;
+		private RelationType relationType;
+		private String value;
+
+		private ParsedCondition(int attributeIndex, RelationType relationType, String value) {
+			this.attributeIndex = attributeIndex;
+			this.relationType = relationType;
+			this.value = value;
+		}
+
+		/**
+		 * Gets index of the attribute used in this condition.
+		 *
+		 * @return index of the attribute used in this condition
+		 */
+		public int getAttributeIndex() {
+			return attributeIndex;
+		}
+
+		/**
+		 * Gets relation used in this condition.
+		 *
+		 * @return relation used in this condition
+		 */
+		public RelationType getRelationType() {
+			return relationType;
+		}
+
+		/**
+		 * Gets textual representation of the value (threshold) used in this condition.
+		 *
+		 * @return textual representation of the value (threshold) used in this condition
+		 */
+		public String getValue() {
+			return value;
+		}
+	}
+
+	/**
+	 * Single rule, as read from *.rules file, along with its statistics.
+	 *
+	 * @author Marcin Szeląg
+	 */
+	public static class ParsedRule {
+		private int number;
+		private int type;
+		private int usage;
+		private List<ParsedCondition> conditions;
+		private ParsedCondition decision;
+		private Map<String, String> statistics;
+
+		private ParsedRule(int number, int type, int usage, List<ParsedCondition> conditions, ParsedCondition decision) {
+			this.number = number;
+			this.type = type;
+			this.usage = usage;
+			this.conditions = conditions;
+			this.decision = decision;
+			this.statistics = new Object2ObjectLinkedOpenHashMap<String, String>();
+		}
+
+		/**
+		 * Gets number of this rule, written before the colon in *.rules file.
+		 *
+		 * @return number of this rule in *.rules file
+		 */
+		public int getNumber() {
+			return number;
+		}
+
+		/**
+		 * Gets type of this rule.
+		 *
+		 * @return one of {@link pl.poznan.put.cs.idss.jrs.rules.Rule#CERTAIN} or {@link pl.poznan.put.cs.idss.jrs.rules.Rule#POSSIBLE}
+		 */
+		public int getType() {
+			return type;
+		}
+
+		/**
+		 * Gets usage (semantics) of this rule.
+		 *
+		 * @return one of {@link pl.poznan.put.cs.idss.jrs.rules.Rule#AT_LEAST}, {@link pl.poznan.put.cs.idss.jrs.rules.Rule#AT_MOST},
+		 *         or {@link pl.poznan.put.cs.idss.jrs.rules.Rule#EQUAL}
+		 */
+		public int getUsage() {
+			return usage;
+		}
+
+		/**
+		 * Gets conditions of this rule.
+		 *
+		 * @return conditions of this rule
+		 */
+		public List<ParsedCondition> getConditions() {
+			return conditions;
+		}
+
+		/**
+		 * Gets (first) decision of this rule.
+		 *
+		 * @return (first) decision of this rule
+		 */
+		public ParsedCondition getDecision() {
+			return decision;
+		}
+
+		/**
+		 * Gets statistics of this rule, mapping statistic's name (e.g., {@link RulesFileParser#SUPPORT}) to its textual value.
+		 * Only statistics listed as constants of {@link RulesFileParser} are stored.
+		 *
+		 * @return statistics of this rule; empty if rules file does not contain section [RULESINFO]
+		 */
+		public Map<String, String> getStatistics() {
+			return statistics;
+		}
+	}
+
+	/**
+	 * Name of support statistic.
+	 */
+	public static final String SUPPORT = "Support";
+	/**
+	 * Name of strength statistic.
+	 */
+	public static final String STRENGTH = "Strength";
+	/**
+	 * Name of confidence statistic.
+	 */
+	public static final String CONFIDENCE = "Confidence";
+	/**
+	 * Name of coverage factor statistic.
+	 */
+	public static final String COVERAGE_FACTOR = "CoverageFactor";
+	/**
+	 * Name of coverage statistic.
+	 */
+	public static final String COVERAGE = "Coverage";
+	/**
+	 * Name of negative coverage statistic.
+	 */
+	public static final String NEGATIVE_COVERAGE = "NegativeCoverage";
+	/**
+	 * Name of inconsistency measure (epsilon) statistic.
+	 */
+	public static final String INCONSISTENCY_MEASURE = "InconsistencyMeasure";
+	/**
+	 * Name of epsilon' measure statistic.
+	 */
+	public static final String EPSILON_PRIM_MEASURE = "EpsilonPrimMeasure";
+	/**
+	 * Name of f confirmation measure statistic.
+	 */
+	public static final String F_CONFIRMATION_MEASURE = "f-ConfirmationMeasure";
+	/**
+	 * Name of A confirmation measure statistic.
+	 */
+	public static final String A_CONFIRMATION_MEASURE = "A-ConfirmationMeasure";
+	/**
+	 * Name of Z confirmation measure statistic.
+	 */
+	public static final String Z_CONFIRMATION_MEASURE = "Z-ConfirmationMeasure";
+	/**
+	 * Name of l confirmation measure statistic.
+	 */
+	public static final String L_CONFIRMATION_MEASURE = "l-ConfirmationMeasure";
+	/**
+	 * Name of c1 confirmation measure statistic.
+	 */
+	public static final String C1_CONFIRMATION_MEASURE = "c1-ConfirmationMeasure";
+
+	/**
+	 * Names of statistics stored in {@link ParsedRule#getStatistics()}. Other statistics (like lists of covered examples) are skipped.
+	 */
+	static final String[] STORED_STATISTICS = {SUPPORT, STRENGTH, CONFIDENCE, COVERAGE_FACTOR, COVERAGE, NEGATIVE_COVERAGE,
+			INCONSISTENCY_MEASURE, EPSILON_PRIM_MEASURE, F_CONFIRMATION_MEASURE, A_CONFIRMATION_MEASURE, Z_CONFIRMATION_MEASURE,
+			L_CONFIRMATION_MEASURE, C1_CONFIRMATION_MEASURE};
+
+	static final String ATTRIBUTES_SECTION = "[ATTRIBUTES]";
+	static final String PREFERENCES_SECTION = "[PREFERENCES]";
+	static final String RULES_SECTION = "[RULES]";
+	static final String RULES_INFO_SECTION = "[RULESINFO]";
+	/**
+	 * Maximum number of characters of section [RULES] kept in memory by a parser reading from a reader.
+	 * Longer section is kept in a temporary file.
+	 */
+	static final int RULES_SECTION_MEMORY_LIMIT = 1 << 20;
+
+	/**
+	 * Path to parsed *.rules file; {@code null} if rules are parsed from a reader.
+	 */
+	private String rulesFilePath;
+	/**
+	 * Attributes read from parsed file.
+	 */
+	private EvaluationAttribute[] attributes;
+	/**
+	 * Cache of ruleLearn fields, owned by the conversion using this parser.
+	 */
+	private FieldCache fieldCache;
+	/**
+	 * Maps attribute name to its index.
+	 */
+	private Map<String, Integer> attributeName2Index;
+	/**
+	 * Reader positioned in section from which rules are read; {@code null} if there are no more rules.
+	 */
+	private BufferedReader rulesReader;
+	/**
+	 * Tells if rules are read from section [RULESINFO] (i.e., together with their statistics).
+	 */
+	private boolean readingRulesInfo;
+	/**
+	 * Temporary file with section [RULES] read from a reader, deleted by {@link #close()}; {@code null} if there is no such file.
+	 */
+	private Path rulesSectionFile;
+	/**
+	 * Line read from {@link #rulesReader} but not processed yet.
+	 */
+	private String pendingLine;
+	/**
+	 * Number of the last line read from {@link #rulesReader}.
+	 */
+	private int lineNumber;
+
+	/**
+	 * Constructs this parser and reads attributes from given *.rules file.
+	 *
+	 * @param rulesFilePath path to *.rules file
+	 * @param fieldCache cache of ruleLearn fields, owned by the conversion using this parser
+	 *
+	 * @throws IOException if given file cannot be read
+	 * @throws InvalidValueException if description of any attribute is incorrect
+	 * @throws NullPointerException if given field cache is {@code null}
+	 */
+	public RulesFileParser(String rulesFilePath, FieldCache fieldCache) throws IOException {
+		this(openRulesFile(rulesFilePath, fieldCache), fieldCache);
+		this.rulesFilePath = rulesFilePath;
+	}
+
+	/**
+	 * Opens *.rules file given by its path, for reading in UTF-8 encoding.
+	 *
+	 * @param rulesFilePath path to *.rules file
+	 * @param fieldCache cache of ruleLearn fields, checked before the file is opened
+	 * @return reader of given file
+	 *
+	 * @throws IOException if given file cannot be opened
+	 * @throws NullPointerException if given field cache is {@code null}
+	 */
+	private static Reader openRulesFile(String rulesFilePath, FieldCache fieldCache) throws IOException {
+		if (fieldCache == null) {
+			throw new NullPointerException("Field cache is null.");
+		}
+		return new InputStreamReader(new FileInputStream(rulesFilePath), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Constructs this parser and reads attributes from given reader. Given reader is read only once.
+	 * If the reader does not contain section [RULESINFO], rules are returned from section [RULES], kept in memory
+	 * or, if it is longer than {@link #RULES_SECTION_MEMORY_LIMIT} characters, in a temporary file.
+	 * Section [ATTRIBUTES] or [PREFERENCES] following section [RULES] is rejected, as attributes have already been read.
+	 *
+	 * @param reader reader positioned at the beginning of *.rules file; closed by {@link #close()}
+	 * @param fieldCache cache of ruleLearn fields, owned by the conversion using this parser
+	 *
+	 * @throws IOException if given reader cannot be read
+	 * @throws InvalidValueException if description of any attribute is incorrect, or section [ATTRIBUTES] or [PREFERENCES] follows section [RULES]
+	 * @throws NullPointerException if given field cache is {@code null}
+	 */
+	public RulesFileParser(Reader reader, FieldCache fieldCache) throws IOException {
+		if (fieldCache == null) {
+			throw new NullPointerException("Field cache is null.");
+		}
+		this.rulesFilePath = null;
+		this.fieldCache = fieldCache;
+		BufferedReader bufferedReader = reader instanceof BufferedReader ? (BufferedReader)reader : new BufferedReader(reader);
+		boolean rulesSectionFound;
+
+		try {
+			rulesSectionFound = readAttributes(bufferedReader);
+		} catch (IOException | RuntimeException exception) {
+			bufferedReader.close();
+			throw exception;
+		}
+
+		if (rulesSectionFound) {
+			//keep section [RULES] until it is known if section [RULESINFO] follows
+			StringBuilder rulesSection = new StringBuilder();
+			BufferedWriter rulesSectionWriter = null;
+			int rulesSectionLineNumber = lineNumber;
+			boolean inRulesSection = true;
+			boolean rulesInfoSectionFound = false;
+			String line;
+
+			try {
+				while ((line = bufferedReader.readLine()) != null) {
+					lineNumber++;
+					String strippedLine = line.strip();
+					if (strippedLine.equals(RULES_INFO_SECTION)) {
+						rulesInfoSectionFound = true;
+						break;
+					}
+					if (strippedLine.startsWith("[") && strippedLine.endsWith("]")) {
+						checkSectionAfterRules(strippedLine);
+						inRulesSection = false;
+					}
+					if (inRulesSection) {
+						if (rulesSectionWriter != null) {
+							rulesSectionWriter.write(line);
+							rulesSectionWriter.newLine();
+						} else {
+							rulesSection.append(line).append('\n');
+							if (rulesSection.length() > RULES_SECTION_MEMORY_LIMIT) {
+								rulesSectionFile = Files.createTempFile("jRS2ruleLearn", ".rules");
+								rulesSectionWriter = Files.newBufferedWriter(rulesSectionFile, StandardCharsets.UTF_8);
+								rulesSectionWriter.append(rulesSection);
+								rulesSection = null;
+							}
+						}
+					}
+				}
+				if (rulesSectionWriter != null) {
+					rulesSectionWriter.close();
+				}
+			} catch (IOException | RuntimeException exception) {
+				if (rulesSectionWriter != null) {
+					rulesSectionWriter.close();
+				}
+				bufferedReader.close();
+				close();
+				throw exception;
+			}
+
+			if (rulesInfoSectionFound) {
+				rulesSection = null;
+				if (rulesSectionFile != null) {
+					Files.deleteIfExists(rulesSectionFile);
+					rulesSectionFile = null;
+				}
+				rulesReader = bufferedReader;
+				readingRulesInfo = true;
+			} else {
+				bufferedReader.close();
+				rulesReader = rulesSectionFile != null ? Files.newBufferedReader(rulesSectionFile, StandardCharsets.UTF_8)
+						: new BufferedReader(new StringReader(rulesSection.toString()));
+				readingRulesInfo = false;
+				lineNumber = rulesSectionLineNumber;
+			}
+		} else {
+			bufferedReader.close();
+			rulesReader = null;
+		}
+	}
+
+	/**
+	 * Reads attributes from given reader, until section [RULES] is encountered.
+	 *
+	 * @param reader reader positioned at the beginning of *.rules file
+	 * @return {@code true} if section [RULES] has been found, {@code false} otherwise
+	 *
+	 * @throws IOException if given reader cannot be read
+	 * @throws InvalidValueException if description of any attribute is incorrect
+	 */
+	private boolean readAttributes(BufferedReader reader) throws IOException {
+		List<String> names = new ObjectArrayList<String>();
+		List<Boolean> activeFlags = new ObjectArrayList<Boolean>();
+		List<AttributeType> types = new ObjectArrayList<AttributeType>();
+		List<String> domains = new ObjectArrayList<String>();
+		List<AttributePreferenceType> preferenceTypes = new ObjectArrayList<AttributePreferenceType>();
+
+		attributeName2Index = new Object2ObjectLinkedOpenHashMap<String, Integer>();
+		String decisionName = null;
+		String section = "";
+		boolean rulesSectionFound = false;
+		String line;
+
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			line = line.strip();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			if (line.startsWith("[") && line.endsWith("]")) {
+				section = line;
+				if (section.equals(RULES_SECTION)) {
+					rulesSectionFound = true;
+					break;
+				}
+				continue;
+			}
+
+			if (section.equals(ATTRIBUTES_SECTION)) {
+				if (line.startsWith("+") || line.startsWith("-")) {
+					int colonIndex = line.indexOf(':');
+					if (colonIndex < 0) {
+						throw new InvalidValueException("Incorrect description of attribute in line " + lineNumber + ".");
+					}
+					String name = line.substring(1, colonIndex).strip();
+					String description = line.substring(colonIndex + 1).strip();
+
+					int domainEndIndex;
+					if (description.startsWith("[")) {
+						domainEndIndex = description.indexOf(']');
+					} else if (description.startsWith("(")) {
+						domainEndIndex = description.indexOf(')');
+					} else {
+						domainEndIndex = -1;
+					}
+					if (domainEndIndex < 0) {
+						throw new InvalidValueException("Incorrect domain of attribute " + name + " in line " + lineNumber + ".");
+					}
+
+					AttributeType type = AttributeType.CONDITION;
+					AttributePreferenceType preferenceType = AttributePreferenceType.NONE;
+					for (String option : description.substring(domainEndIndex + 1).split(",")) {
+						switch (option.strip().toLowerCase()) {
+						case "":
+							break;
+						case "decision":
+							type = AttributeType.DECISION;
+							break;
+						case "description":
+							type = AttributeType.DESCRIPTION;
+							break;
+						default:
+							preferenceType = parsePreferenceType(option.strip(), name);
+						}
+					}
+
+					attributeName2Index.put(name, names.size());
+					names.add(name);
+					activeFlags.add(line.startsWith("+"));
+					types.add(type);
+					domains.add(description.substring(0, domainEndIndex + 1));
+					preferenceTypes.add(preferenceType);
+				} else if (line.toLowerCase().startsWith("decision:")) {
+					decisionName = line.substring("decision:".length()).strip();
+				}
+			} else if (section.equals(PREFERENCES_SECTION)) {
+				int colonIndex = line.indexOf(':');
+				if (colonIndex >= 0) {
+					String name = line.substring(0, colonIndex).strip();
+					Integer index = attributeName2Index.get(name);
+					if (index != null) {
+						preferenceTypes.set(index, parsePreferenceType(line.substring(colonIndex + 1).strip(), name));
+					}
+				}
+			}
+		} //while
+
+		if (decisionName != null) {
+			Integer index = attributeName2Index.get(decisionName);
+			if (index == null) {
+				throw new InvalidValueException("Decision attribute " + decisionName + " is not defined.");
+			}
+			types.set(index, AttributeType.DECISION);
+		}
+
+		attributes = new EvaluationAttribute[names.size()];
+		for (int j = 0; j < attributes.length; j++) {
+			EvaluationField valueType = createValueType(domains.get(j), preferenceTypes.get(j), names.get(j));
+			attributes[j] = new EvaluationAttribute(names.get(j), activeFlags.get(j), types.get(j), valueType, new UnknownSimpleFieldMV2(), preferenceTypes.get(j));
+		}
+
+		return rulesSectionFound;
+	}
+
+	/**
+	 * Parses preference type of an attribute.
+	 *
+	 * @param text textual representation of preference type
+	 * @param attributeName name of the attribute, used in exception message
+	 * @return parsed preference type
+	 *
+	 * @throws InvalidValueException if given text is neither "none", "cost", nor "gain"
+	 */
+	private AttributePreferenceType parsePreferenceType(String text, String attributeName) {
+		switch (text.toLowerCase()) {
+		case "none":
+			return AttributePreferenceType.NONE;
+		case "cost":
+			return AttributePreferenceType.COST;
+		case "gain":
+			return AttributePreferenceType.GAIN;
+		default: throw new InvalidValueException("Incorrect preference type of attribute " + attributeName + ".");
+		}
+	}
+
+	/**
+	 * Creates value type of an attribute, corresponding to given domain description.
+	 * Takes fields from the {@link FieldCache field cache} of this parser.
+	 *
+	 * @param domain domain description, i.e., "(integer)", "(continuous)", or list of enum elements enclosed in square brackets
+	 * @param preferenceType preference type of the attribute
+	 * @param attributeName name of the attribute, used in exception messages
+	 * @return value type of an attribute
+	 *
+	 * @throws UnsupportedOperationException if domain is other than integer, float (continuous), or enum
+	 */
+	private EvaluationField createValueType(String domain, AttributePreferenceType preferenceType, String attributeName) {
+		if (domain.startsWith("[")) {
+			String[] elements = domain.substring(1, domain.length() - 1).split(",");
+			for (int i = 0; i < elements.length; i++) {
+				elements[i] = elements[i].strip();
+			}
+			ElementList elementList;
+			try {
+				elementList = new ElementList(elements);
+			} catch (NoSuchAlgorithmException exception) {
+				throw new UnsupportedOperationException("Cannot process enum domain of attribute " + attributeName + "."); //this should not happen if default algorithm in ElementList is set correctly
+			}
+			return fieldCache.getEnumerationField(elementList, 0, preferenceType);
+		} else {
+			switch (domain.substring(1, domain.length() - 1).strip().toLowerCase()) {
+			case "integer":
+				return fieldCache.getIntegerField(0, preferenceType);
+			case "continuous":
+			case "float":
+				return fieldCache.getRealField(0.0, preferenceType);
+			default: throw new UnsupportedOperationException("Cannot process attribute " + attributeName + " with value of type other than integer, float, or enum.");
+			}
+		}
+	}
+
+	/**
+	 * Gets cache of ruleLearn fields used by this parser.
+	 *
+	 * @return cache of ruleLearn fields used by this parser
+	 */
+	public FieldCache getFieldCache() {
+		return fieldCache;
+	}
+
+	/**
+	 * Gets path to parsed *.rules file.
+	 *
+	 * @return path to parsed *.rules file, or {@code null} if rules are parsed from a reader
+	 */
+	public String getRulesFilePath() {
+		return rulesFilePath;
+	}
+
+	/**
+	 * Gets attributes read from parsed *.rules file.
+	 *
+	 * @return attributes read from parsed *.rules file
+	 */
+	public EvaluationAttribute[] getAttributes() {
+		return attributes;
+	}
+
+	/**
+	 * Tells if rules returned by {@link #nextRule()} come with their statistics (i.e., if parsed file contains section [RULESINFO]).
+	 *
+	 * @return {@code true} if rules are read along with their statistics, {@code false} otherwise
+	 */
+	public boolean readsRuleStatistics() {
+		return readingRulesInfo;
+	}
+
+	/**
+	 * Reads next rule from parsed *.rules file, along with its statistics (if present in the file).
+	 *
+	 * @return next rule, or {@code null} if there are no more rules
+	 *
+	 * @throws IOException if parsed file cannot be read
+	 * @throws InvalidValueException if rule description is incorrect
+	 */
+	public ParsedRule nextRule() throws IOException {
+		if (rulesReader == null) {
+			return null;
+		}
+
+		String line;
+		ParsedRule parsedRule = null;
+
+		while ((line = nextLine()) != null) {
+			if (line.isEmpty() || line.startsWith("#")) {
+				if (parsedRule != null) {
+					return parsedRule; //end of rule's statistics
+				}
+				continue;
+			}
+			if (line.startsWith("[") && line.endsWith("]")) { //next section
+				checkSectionAfterRules(line);
+				close();
+				return parsedRule;
+			}
+			if (isRuleLine(line)) {
+				if (parsedRule != null) {
+					pendingLine = line; //rule without blank line after its statistics
+					return parsedRule;
+				}
+				parsedRule = parseRule(line);
+				if (!readingRulesInfo) {
+					return parsedRule;
+				}
+			} else {
+				if (parsedRule != null) {
+					int colonIndex = line.indexOf(':');
+					if (colonIndex > 0) {
+						String name = line.substring(0, colonIndex);
+						for (String storedStatistic : STORED_STATISTICS) {
+							if (storedStatistic.equals(name)) {
+								parsedRule.statistics.put(name, line.substring(colonIndex + 1).strip());
+								break;
+							}
+						}
+					}
+				} else {
+					throw new InvalidValueException("Incorrect rule in line " + lineNumber + ".");
+				}
+			}
+		} //while
+
+		close();
+		return parsedRule;
+	}
+
+	/**
+	 * Reads next stripped line from {@link #rulesReader}, taking into account {@link #pendingLine}.
+	 *
+	 * @return next stripped line, or {@code null} if end of file has been reached
+	 * @throws IOException if parsed file cannot be read
+	 */
+	private String nextLine() throws IOException {
+		String line;
+		if (pendingLine != null) {
+			line = pendingLine;
+			pendingLine = null;
+		} else {
+			line = rulesReader.readLine();
+			if (line != null) {
+				lineNumber++;
+				line = line.strip();
+			}
+		}
+		return line;
+	}
+
+	/**
+	 * Tells if given line starts with rule's number followed by a colon.
+	 *
+	 * @param line stripped line of *.rules file
+	 * @return {@code true} if given line describes a rule, {@code false} otherwise
+	 */
+	private boolean isRuleLine(String line) {
+		int i = 0;
+		while (i < line.length() && Character.isDigit(line.charAt(i))) {
+			i++;
+		}
+		return i > 0 && i < line.length() && line.charAt(i) == ':';
+	}
+
+	/**
+	 * Parses rule written in a single line, like "7: (at5 <= 5801) & (at13 = 49) => (d >= 1) |CERTAIN, AT_LEAST, 1|".
+	 *
+	 * @param line stripped line of *.rules file, describing a rule
+	 * @return parsed rule, without statistics
+	 *
+	 * @throws InvalidValueException if rule description is incorrect
+	 */
+	private ParsedRule parseRule(String line) {
+		int implicationIndex = line.indexOf("=>");
+		int tagStartIndex = line.indexOf('|', implicationIndex + 1);
+		int tagEndIndex = line.lastIndexOf('|');
+		if (implicationIndex < 0 || tagStartIndex < 0 || tagEndIndex <= tagStartIndex) {
+			throw new InvalidValueException("Incorrect rule in line " + lineNumber + ".");
+		}
+
+		String[] tag = line.substring(tagStartIndex + 1, tagEndIndex).split(",");
+		if (tag.length < 2) {
+			throw new InvalidValueException("Incorrect type or usage of rule in line " + lineNumber + ".");
+		}
+
+		int type;
+		switch (tag[0].strip()) {
+		case "CERTAIN":
+			type = pl.poznan.put.cs.idss.jrs.rules.Rule.CERTAIN;
+			break;
+		case "POSSIBLE":
+			type = pl.poznan.put.cs.idss.jrs.rules.Rule.POSSIBLE;
+			break;
+		default: throw new InvalidValueException("Incorrect type of rule in line " + lineNumber + ".");
+		}
+
+		int usage;
+		switch (tag[1].strip()) {
+		case "AT_LEAST":
+			usage = pl.poznan.put.cs.idss.jrs.rules.Rule.AT_LEAST;
+			break;
+		case "AT_MOST":
+			usage = pl.poznan.put.cs.idss.jrs.rules.Rule.AT_MOST;
+			break;
+		case "EQUAL":
+			usage = pl.poznan.put.cs.idss.jrs.rules.Rule.EQUAL;
+			break;
+		default: throw new InvalidValueException("Incorrect usage of rule in line " + lineNumber + ".");
+		}
+
+		int number;
+		try {
+			number = Integer.parseInt(line.substring(0, line.indexOf(':')));
+		} catch (NumberFormatException exception) {
+			throw new InvalidValueException("Incorrect number of rule in line " + lineNumber + ".");
+		}
+
+		String conditionsPart = line.substring(line.indexOf(':') + 1, implicationIndex).strip();
+		String decisionsPart = line.substring(implicationIndex + 2, tagStartIndex).strip();
+
+		List<ParsedCondition> conditions = parseConditions(conditionsPart);
+		List<ParsedCondition> decisions = parseConditions(decisionsPart);
+		if (decisions.isEmpty()) {
+			throw new InvalidValueException("Missing decision of rule in line " + lineNumber + ".");
+		}
+		ParsedCondition decision = decisions.get(0);
+
+		return new ParsedRule(number, type, usage, conditions, decision);
+	}
+
+	/**
+	 * Beginning of a condition, i.e., attribute and relation.
+	 *
+	 * @author Marcin Szeląg
+	 */
+	private static class ConditionHead {
+		private int attributeIndex;
+		private RelationType relationType;
+		/**
+		 * Index of the first character after the relation.
+		 */
+		private int valueIndex;
+
+		private ConditionHead(int attributeIndex, RelationType relationType, int valueIndex) {
+			this.attributeIndex = attributeIndex;
+			this.relationType = relationType;
+			this.valueIndex = valueIndex;
+		}
+	}
+
+	/**
+	 * Parses conjunction of conditions, like "(at5 <= 5801) & (at13 = 49)". Each condition has to start with a known attribute, followed by a relation.
+	 * Value of a condition ends at the closing parenthesis followed either by the end of the conjunction, or by "&amp;" and the beginning of next condition.
+	 * Hence, attribute names and values may contain relations, ampersands, and parentheses.
+	 *
+	 * @param conditions stripped textual representation of a conjunction of conditions; may be empty
+	 * @return parsed conditions
+	 *
+	 * @throws InvalidValueException if any condition is incorrect or refers to an unknown attribute
+	 */
+	private List<ParsedCondition> parseConditions(String conditions) {
+		List<ParsedCondition> parsedConditions = new ObjectArrayList<ParsedCondition>();
+		int index = 0;
+
+		while (index < conditions.length()) {
+			ConditionHead conditionHead = parseConditionHead(conditions, index);
+			if (conditionHead == null) {
+				throw new InvalidValueException("Incorrect condition, unknown attribute, or relation other than >=, <= or = in "
+						+ conditions.substring(index) + " in line " + lineNumber + ".");
+			}
+
+			int valueEndIndex = -1;
+			int nextIndex = conditions.length();
+			int closingIndex = conditions.indexOf(')', conditionHead.valueIndex);
+			while (closingIndex >= 0) {
+				int i = skipSpaces(conditions, closingIndex + 1);
+				if (i == conditions.length()) {
+					valueEndIndex = closingIndex;
+					break;
+				}
+				if (conditions.charAt(i) == '&') {
+					i = skipSpaces(conditions, i + 1);
+					if (parseConditionHead(conditions, i) != null) {
+						valueEndIndex = closingIndex;
+						nextIndex = i;
+						break;
+					}
+				}
+				closingIndex = conditions.indexOf(')', closingIndex + 1);
+			}
+			if (valueEndIndex < 0) {
+				throw new InvalidValueException("Incorrect condition " + conditions.substring(index) + " in line " + lineNumber + ".");
+			}
+
+			parsedConditions.add(new ParsedCondition(conditionHead.attributeIndex, conditionHead.relationType,
+					conditions.substring(conditionHead.valueIndex, valueEndIndex).strip()));
+			index = nextIndex;
+		}
+
+		return parsedConditions;
+	}
+
+	/**
+	 * Parses beginning of a condition, i.e., opening parenthesis, name of a known attribute, and relation (" >= ", " <= ", or " = ").
+	 * If name of an attribute is followed by a relation more than once (e.g., when attribute name contains a relation),
+	 * the first occurrence being preceded by a name of a known attribute is taken.
+	 *
+	 * @param conditions stripped textual representation of a conjunction of conditions
+	 * @param index index of the beginning of a condition in given text
+	 * @return parsed beginning of a condition, or {@code null} if given text does not contain a condition concerning a known attribute at given index
+	 */
+	private ConditionHead parseConditionHead(String conditions, int index) {
+		if (index >= conditions.length() || conditions.charAt(index) != '(') {
+			return null;
+		}
+		int nameIndex = skipSpaces(conditions, index + 1);
+
+		for (int spaceIndex = conditions.indexOf(' ', nameIndex); spaceIndex >= 0; spaceIndex = conditions.indexOf(' ', spaceIndex + 1)) {
+			RelationType relationType;
+			int relationLength;
+			if (conditions.startsWith(" >= ", spaceIndex)) {
+				relationType = RelationType.AT_LEAST;
+				relationLength = 4;
+			} else if (conditions.startsWith(" <= ", spaceIndex)) {
+				relationType = RelationType.AT_MOST;
+				relationLength = 4;
+			} else if (conditions.startsWith(" = ", spaceIndex)) {
+				relationType = RelationType.EQUAL;
+				relationLength = 3;
+			} else {
+				continue;
+			}
+			Integer attributeIndex = attributeName2Index.get(conditions.substring(nameIndex, spaceIndex).strip());
+			if (attributeIndex != null) {
+				return new ConditionHead(attributeIndex, relationType, spaceIndex + relationLength);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Skips spaces in given text.
+	 *
+	 * @param text considered text
+	 * @param index index from which spaces should be skipped
+	 * @return index of the first character other than space, not smaller than given index, or length of given text
+	 */
+	private static int skipSpaces(String text, int index) {
+		while (index < text.length() && text.charAt(index) == ' ') {
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * Checks if section found after section [RULES] can be placed there.
+	 *
+	 * @param section stripped header of the section, like "[PREFERENCES]"
+	 * @throws InvalidValueException if given section is [ATTRIBUTES] or [PREFERENCES], which would be ignored, as attributes have already been read
+	 */
+	private void checkSectionAfterRules(String section) {
+		if (section.equals(ATTRIBUTES_SECTION) || section.equals(PREFERENCES_SECTION)) {
+			throw new InvalidValueException("Section " + section + " in line " + lineNumber + " has to precede section " + RULES_SECTION + ".");
+		}
+	}
+
+	/**
+	 * Closes underlying reader and deletes temporary file with section [RULES], if there is such file.
+	 * Subsequent calls to {@link #nextRule()} return {@code null}.
+	 *
+	 * @throws IOException if underlying reader cannot be closed, or temporary file cannot be deleted
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (rulesReader != null) {
+				BufferedReader reader = rulesReader;
+				rulesReader = null;
+				reader.close();
+			}
+		} finally {
+			if (rulesSectionFile != null) {
+				Path file = rulesSectionFile;
+				rulesSectionFile = null;
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+
+}
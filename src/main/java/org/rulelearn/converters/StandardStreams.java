@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) Marcin Szeląg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rulelearn.converters;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+
+/**
+ * Resolves file paths given to converters' entry points, where {@link #STANDARD_STREAM_PATH} denotes standard input or standard output.
+ * Standard streams are returned wrapped, so that closing them (e.g., in a try-with-resources statement) does not close the process' standard streams.
+ * The same wrappers protect streams given to converters by callers, who remain their owners.
+ *
+ * @author Marcin Szeląg (<a href="mailto:marcin.szelag@cs.put.poznan.pl">marcin.szelag@cs.put.poznan.pl</a>)
+ */
+final class StandardStreams {
+
+	/**
+	 * Path denoting standard input (for input files) or standard output (for output files).
+	 */
+	static final String STANDARD_STREAM_PATH = "-";
+
+	private StandardStreams() {
+	}
+
+	/**
+	 * Tells if given path denotes standard input or standard output.
+	 *
+	 * @param path considered path
+	 * @return {@code true} if given path equals {@link #STANDARD_STREAM_PATH}, {@code false} otherwise
+	 */
+	static boolean isStandardStream(String path) {
+		return STANDARD_STREAM_PATH.equals(path);
+	}
+
+	/**
+	 * Reserves standard output for converted data, by redirecting {@link System#out} (and thus all messages) to standard error.
+	 * Should be invoked before any message is printed.
+	 *
+	 * @return original standard output
+	 */
+	static PrintStream reserveStandardOutput() {
+		PrintStream standardOutput = System.out;
+		System.setOut(System.err);
+		return standardOutput;
+	}
+
+	/**
+	 * Opens input stream for given path.
+	 *
+	 * @param path path to input file, or {@link #STANDARD_STREAM_PATH}
+	 * @return standard input, which is not closed when returned stream is closed, or buffered input stream of the file
+	 *
+	 * @throws IOException if given file cannot be opened
+	 */
+	static InputStream openInputStream(String path) throws IOException {
+		return isStandardStream(path) ? nonClosing(System.in) : new BufferedInputStream(new FileInputStream(path));
+	}
+
+	/**
+	 * Opens output stream for given path.
+	 *
+	 * @param path path to output file, or {@link #STANDARD_STREAM_PATH}
+	 * @param standardOutput standard output, as returned by {@link #reserveStandardOutput()}
+	 * @return given standard output, which is only flushed when returned stream is closed, or buffered output stream of the file
+	 *
+	 * @throws IOException if given file cannot be created
+	 */
+	static OutputStream openOutputStream(String path, OutputStream standardOutput) throws IOException {
+		return isStandardStream(path) ? nonClosing(standardOutput) : new BufferedOutputStream(new FileOutputStream(path));
+	}
+
+	/**
+	 * Wraps given input stream, so that closing the wrapper does not close given stream.
+	 *
+	 * @param inputStream input stream owned by someone else
+	 * @return input stream reading from given stream
+	 */
+	static InputStream nonClosing(InputStream inputStream) {
+		return new FilterInputStream(inputStream) {
+			@Override
+			public void close() {
+				//given stream is closed by its owner
+			}
+		};
+	}
+
+	/**
+	 * Wraps given output stream, so that closing the wrapper only flushes given stream.
+	 *
+	 * @param outputStream output stream owned by someone else
+	 * @return output stream writing to given stream
+	 */
+	static OutputStream nonClosing(OutputStream outputStream) {
+		return new FilterOutputStream(outputStream) {
+			@Override
+			public void write(byte[] bytes, int offset, int length) throws IOException {
+				out.write(bytes, offset, length); //FilterOutputStream writes byte by byte
+			}
+
+			@Override
+			public void close() throws IOException {
+				flush(); //given stream is closed by its owner
+			}
+		};
+	}
+
+	/**
+	 * Wraps given reader, so that closing the wrapper does not close given reader.
+	 *
+	 * @param reader reader owned by someone else
+	 * @return reader reading from given reader
+	 */
+	static Reader nonClosing(Reader reader) {
+		return new FilterReader(reader) {
+			@Override
+			public void close() {
+				//given reader is closed by its owner
+			}
+		};
+	}
+
+}
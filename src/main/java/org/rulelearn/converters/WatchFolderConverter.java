@@ -0,0 +1,563 @@
+/**
+ * Copyright (C) Marcin Szeląg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rulelearn.converters;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import pl.poznan.put.cs.idss.jrs.output.OM;
+import pl.poznan.put.cs.idss.jrs.output.SystemOut;
+
+/**
+ * Watches input directories and converts each *.isf file using {@link Isf2JsonConverter}, and each *.rules file using {@link Rules2RuleMLConverter},
+ * as soon as the file has been completely written. A file is considered to be completely written if its size and modification time have not changed
+ * for a quiet period, and it can be opened for reading. Conversions are run on a pool of worker threads, each conversion with its own converter
+ * (and thus its own {@link FieldCache field cache}).<br>
+ * <br>
+ * Output files are first written to hidden temporary files in the output directory, unique for each conversion, and then atomically moved
+ * to their final names, so consumers of the output directory never see partially written files. For input file &lt;name&gt;.isf,
+ * files &lt;name&gt;.isf.meta.json and &lt;name&gt;.data.json are produced. For input file &lt;name&gt;.rules, files &lt;name&gt;.rules.meta.json
+ * and &lt;name&gt;.rules.xml are produced. Hence, files &lt;name&gt;.isf and &lt;name&gt;.rules do not overwrite each other's output files.
+ * If input files from different input directories have the same output files (same name and output directory), their conversions are run one after another.
+ * When a directory is registered, files already present in it are converted if any of their output files is missing or older than the input file.
+ *
+ * @author Marcin Szeląg (<a href="mailto:marcin.szelag@cs.put.poznan.pl">marcin.szelag@cs.put.poznan.pl</a>)
+ */
+public class WatchFolderConverter implements Closeable {
+
+	/**
+	 * Default time (in milliseconds) for which size and modification time of a file have to remain unchanged before the file is converted.
+	 */
+	public static final long DEFAULT_QUIET_PERIOD_MILLIS = 1000L;
+	/**
+	 * Time (in milliseconds) between subsequent checks of files waiting for conversion.
+	 */
+	static final long CHECK_PERIOD_MILLIS = 250L;
+
+	static final String ISF_EXTENSION = ".isf";
+	static final String RULES_EXTENSION = ".rules";
+	static final String ATTRIBUTES_SUFFIX = ".meta.json";
+	static final String DATA_SUFFIX = ".data.json";
+	static final String RULEML_SUFFIX = ".rules.xml";
+	static final String TEMPORARY_SUFFIX = ".tmp";
+
+	/**
+	 * File waiting until it is completely written.
+	 *
+	 * @author Marcin Szeląg
+	 */
+	private class PendingFile {
+		private Path outputDirectory;
+		private long size = -1L;
+		private long lastModified = -1L;
+		private long unchangedSince;
+
+		private PendingFile(Path outputDirectory) {
+			this.outputDirectory = outputDirectory;
+			this.unchangedSince = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * State of a pending file, read by {@link #checkPendingFiles()} without holding the lock on {@link #pendingFiles}.
+	 *
+	 * @author Marcin Szeląg
+	 */
+	private static class FileState {
+		private Path file;
+		private PendingFile pendingFile;
+		private boolean quiet;
+		private BasicFileAttributes attributes = null;
+		private boolean deleted = false;
+		private boolean canBeOpened = false;
+
+		private FileState(Path file, PendingFile pendingFile, boolean quiet) {
+			this.file = file;
+			this.pendingFile = pendingFile;
+			this.quiet = quiet;
+		}
+	}
+
+	/**
+	 * Tells if pretty printing should be applied in produced JSON files.
+	 */
+	private boolean prettyPrinting;
+	/**
+	 * Time (in milliseconds) for which size and modification time of a file have to remain unchanged before the file is converted.
+	 */
+	private long quietPeriodMillis;
+	/**
+	 * Service watching input directories.
+	 */
+	private WatchService watchService;
+	/**
+	 * Maps key of a watched input directory to a pair: input directory, output directory.
+	 */
+	private Map<WatchKey, Path[]> watchedDirectories;
+	/**
+	 * Files waiting until they are completely written, in the order of their arrival. Guarded by itself.
+	 */
+	private Map<Path, PendingFile> pendingFiles;
+	/**
+	 * Input and output files of conversions in progress. Guarded by {@link #pendingFiles}.
+	 */
+	private Set<Path> filesInConversion;
+	/**
+	 * Thread checking if pending files have been completely written.
+	 */
+	private ScheduledExecutorService checker;
+	/**
+	 * Pool of threads converting files.
+	 */
+	private ExecutorService workers;
+
+	/**
+	 * Constructs this converter. Input directories have to be registered using {@link #register(Path, Path)}.
+	 *
+	 * @param prettyPrinting tells if pretty printing should be applied in produced JSON files
+	 * @param workersCount number of threads converting files
+	 * @param quietPeriodMillis time (in milliseconds) for which size and modification time of a file have to remain unchanged before the file is converted
+	 *
+	 * @throws IOException if watch service cannot be created
+	 * @throws IllegalArgumentException if given number of threads is not positive
+	 */
+	public WatchFolderConverter(boolean prettyPrinting, int workersCount, long quietPeriodMillis) throws IOException {
+		if (workersCount <= 0) {
+			throw new IllegalArgumentException("Number of worker threads has to be positive.");
+		}
+		this.prettyPrinting = prettyPrinting;
+		this.quietPeriodMillis = quietPeriodMillis;
+		this.watchService = FileSystems.getDefault().newWatchService();
+		this.watchedDirectories = new Object2ObjectOpenHashMap<WatchKey, Path[]>();
+		this.pendingFiles = new Object2ObjectLinkedOpenHashMap<Path, PendingFile>();
+		this.filesInConversion = new ObjectOpenHashSet<Path>();
+		this.workers = Executors.newFixedThreadPool(workersCount);
+		this.checker = Executors.newSingleThreadScheduledExecutor();
+		this.checker.scheduleWithFixedDelay(this::checkPendingFiles, CHECK_PERIOD_MILLIS, CHECK_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Starts watching given input directory. Files already present in that directory are converted if they are not up to date.
+	 *
+	 * @param inputDirectory directory where *.isf and *.rules files arrive
+	 * @param outputDirectory directory where output files should be written; created if it does not exist
+	 *
+	 * @throws IOException if given input directory cannot be watched, or output directory cannot be created
+	 */
+	public void register(Path inputDirectory, Path outputDirectory) throws IOException {
+		inputDirectory = inputDirectory.toAbsolutePath().normalize();
+		outputDirectory = outputDirectory.toAbsolutePath().normalize();
+		Files.createDirectories(outputDirectory);
+
+		WatchKey watchKey = inputDirectory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+		synchronized (watchedDirectories) {
+			watchedDirectories.put(watchKey, new Path[] {inputDirectory, outputDirectory});
+		}
+		OM.println("Watching directory " + inputDirectory + ", writing to directory " + outputDirectory);
+
+		scanDirectory(inputDirectory, outputDirectory);
+	}
+
+	/**
+	 * Processes events concerning watched directories until this converter is closed or current thread is interrupted.
+	 */
+	public void run() {
+		try {
+			while (true) {
+				WatchKey watchKey = watchService.take();
+				Path[] directories;
+				synchronized (watchedDirectories) {
+					directories = watchedDirectories.get(watchKey);
+				}
+
+				if (directories != null) {
+					for (WatchEvent<?> event : watchKey.pollEvents()) {
+						if (event.kind() == OVERFLOW) { //some events have been lost
+							scanDirectory(directories[0], directories[1]);
+						} else {
+							Path file = directories[0].resolve((Path)event.context());
+							if (isConvertible(file)) {
+								addPendingFile(file, directories[1]);
+							}
+						} //else
+					} //for
+				} //if
+
+				if (!watchKey.reset()) {
+					synchronized (watchedDirectories) {
+						watchedDirectories.remove(watchKey);
+					}
+					if (directories != null) {
+						OM.println("Directory " + directories[0] + " is no longer watched.");
+					}
+				}
+			} //while
+		} catch (ClosedWatchServiceException exception) {
+			//this converter has been closed
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Stops watching input directories and waits until conversions already started are finished.
+	 *
+	 * @throws IOException if watch service cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		checker.shutdownNow();
+		watchService.close();
+		workers.shutdown();
+		try {
+			workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Tells if there are no files waiting for conversion and no conversions in progress.
+	 *
+	 * @return {@code true} if this converter is idle, {@code false} otherwise
+	 */
+	boolean isIdle() {
+		synchronized (pendingFiles) {
+			return pendingFiles.isEmpty() && filesInConversion.isEmpty();
+		}
+	}
+
+	/**
+	 * Tells if given file should be converted, according to its extension.
+	 *
+	 * @param file considered file
+	 * @return {@code true} if given file is an *.isf file or a *.rules file, {@code false} otherwise
+	 */
+	static boolean isConvertible(Path file) {
+		String fileName = file.getFileName().toString().toLowerCase();
+		return fileName.endsWith(ISF_EXTENSION) || fileName.endsWith(RULES_EXTENSION);
+	}
+
+	/**
+	 * Gets output files corresponding to given input file.
+	 *
+	 * @param inputFile *.isf or *.rules file
+	 * @param outputDirectory directory where output files should be written
+	 * @return array with output file containing attributes, followed by output file containing objects (for *.isf file) or rules (for *.rules file);
+	 *         name of the file containing attributes includes extension of the input file, so *.isf and *.rules files with the same name have different output files
+	 */
+	static Path[] getOutputFiles(Path inputFile, Path outputDirectory) {
+		String fileName = inputFile.getFileName().toString();
+		boolean isf = fileName.toLowerCase().endsWith(ISF_EXTENSION);
+		String baseName = fileName.substring(0, fileName.length() - (isf ? ISF_EXTENSION : RULES_EXTENSION).length());
+
+		return new Path[] {outputDirectory.resolve(baseName + (isf ? ISF_EXTENSION : RULES_EXTENSION) + ATTRIBUTES_SUFFIX),
+				outputDirectory.resolve(baseName + (isf ? DATA_SUFFIX : RULEML_SUFFIX))};
+	}
+
+	/**
+	 * Converts files from given input directory which are not up to date, i.e., for which any output file is missing or older than the input file.
+	 *
+	 * @param inputDirectory watched input directory
+	 * @param outputDirectory directory where output files should be written
+	 */
+	private void scanDirectory(Path inputDirectory, Path outputDirectory) {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(inputDirectory)) {
+			for (Path file : files) {
+				if (isConvertible(file) && Files.isRegularFile(file) && !isUpToDate(file, outputDirectory)) {
+					addPendingFile(file, outputDirectory);
+				}
+			}
+		}
+		catch (IOException ex) {
+			OM.println(ex.toString());
+		}
+	}
+
+	/**
+	 * Tells if all output files corresponding to given input file exist and are not older than the input file.
+	 *
+	 * @param inputFile *.isf or *.rules file
+	 * @param outputDirectory directory where output files should be written
+	 * @return {@code true} if given file does not need to be converted, {@code false} otherwise
+	 *
+	 * @throws IOException if modification time of any file cannot be read
+	 */
+	private static boolean isUpToDate(Path inputFile, Path outputDirectory) throws IOException {
+		for (Path outputFile : getOutputFiles(inputFile, outputDirectory)) {
+			if (!Files.exists(outputFile) || Files.getLastModifiedTime(outputFile).compareTo(Files.getLastModifiedTime(inputFile)) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Adds given file to files waiting until they are completely written. If the file is already waiting, its quiet period starts anew.
+	 *
+	 * @param file *.isf or *.rules file
+	 * @param outputDirectory directory where output files should be written
+	 */
+	private void addPendingFile(Path file, Path outputDirectory) {
+		synchronized (pendingFiles) {
+			PendingFile pendingFile = pendingFiles.get(file);
+			if (pendingFile == null) {
+				pendingFiles.put(file, new PendingFile(outputDirectory));
+			} else {
+				pendingFile.unchangedSince = System.currentTimeMillis();
+			}
+		}
+	}
+
+	/**
+	 * Submits for conversion each pending file which has been completely written, and which is not being converted already.
+	 * A file whose output files are being written by conversion of another file waits until that conversion ends.
+	 * Size and modification time of pending files are read, and files are opened, without holding the lock on {@link #pendingFiles},
+	 * so that file system operations do not delay conversions finishing in the meantime.
+	 * Invoked periodically by {@link #checker}.
+	 */
+	private void checkPendingFiles() {
+		long now = System.currentTimeMillis();
+		List<FileState> fileStates = new ObjectArrayList<FileState>();
+
+		synchronized (pendingFiles) {
+			for (Map.Entry<Path, PendingFile> entry : pendingFiles.entrySet()) {
+				fileStates.add(new FileState(entry.getKey(), entry.getValue(), now - entry.getValue().unchangedSince >= quietPeriodMillis));
+			}
+		}
+
+		for (FileState fileState : fileStates) {
+			try {
+				fileState.attributes = Files.readAttributes(fileState.file, BasicFileAttributes.class);
+			} catch (NoSuchFileException exception) {
+				fileState.deleted = true; //file has been deleted or renamed
+				continue;
+			} catch (IOException exception) {
+				continue; //try again later
+			}
+			fileState.canBeOpened = fileState.quiet && canBeOpened(fileState.file);
+		}
+
+		synchronized (pendingFiles) {
+			for (FileState fileState : fileStates) {
+				Path file = fileState.file;
+				PendingFile pendingFile = fileState.pendingFile;
+				BasicFileAttributes attributes = fileState.attributes;
+
+				if (pendingFiles.get(file) != pendingFile) {
+					continue; //file has been removed from pending files in the meantime
+				}
+				if (fileState.deleted) {
+					pendingFiles.remove(file);
+					continue;
+				}
+				if (attributes == null) {
+					continue;
+				}
+
+				if (attributes.size() != pendingFile.size || attributes.lastModifiedTime().toMillis() != pendingFile.lastModified) {
+					pendingFile.size = attributes.size();
+					pendingFile.lastModified = attributes.lastModifiedTime().toMillis();
+					pendingFile.unchangedSince = now;
+				} else {
+					Path outputDirectory = pendingFile.outputDirectory;
+					Path[] outputFiles = getOutputFiles(file, outputDirectory);
+					if (now - pendingFile.unchangedSince >= quietPeriodMillis && fileState.canBeOpened && !filesInConversion.contains(file) &&
+							!filesInConversion.contains(outputFiles[0]) && !filesInConversion.contains(outputFiles[1])) {
+						pendingFiles.remove(file);
+						filesInConversion.add(file);
+						filesInConversion.addAll(Arrays.asList(outputFiles));
+						workers.execute(() -> convertFile(file, outputDirectory));
+					}
+				} //else
+			} //for
+		} //synchronized
+	}
+
+	/**
+	 * Tells if given file can be opened for reading. On some platforms, a file cannot be opened while another process is still writing it.
+	 *
+	 * @param file considered file
+	 * @return {@code true} if given file can be opened for reading, {@code false} otherwise
+	 */
+	private static boolean canBeOpened(Path file) {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return true;
+		} catch (IOException exception) {
+			return false;
+		}
+	}
+
+	/**
+	 * Converts given file, writing output files to temporary files first, and then atomically moving them to their final names.
+	 * Temporary files are created anew for each conversion, so they are never shared by two conversions.
+	 *
+	 * @param inputFile *.isf or *.rules file
+	 * @param outputDirectory directory where output files should be written
+	 */
+	private void convertFile(Path inputFile, Path outputDirectory) {
+		Path[] outputFiles = getOutputFiles(inputFile, outputDirectory);
+		Path[] temporaryFiles = new Path[outputFiles.length];
+		long startTime = System.currentTimeMillis();
+
+		try {
+			for (int i = 0; i < outputFiles.length; i++) {
+				temporaryFiles[i] = createTemporaryFile(outputFiles[i]);
+			}
+
+			boolean converted;
+			if (inputFile.getFileName().toString().toLowerCase().endsWith(ISF_EXTENSION)) {
+				converted = (new Isf2JsonConverter()).convertIsf2Json(inputFile.toString(), temporaryFiles[0].toString(), temporaryFiles[1].toString(), prettyPrinting);
+			} else {
+				converted = (new Rules2RuleMLConverter()).convertRules2RuleML(inputFile.toString(), temporaryFiles[0].toString(), temporaryFiles[1].toString(), null, prettyPrinting);
+			}
+
+			if (converted) {
+				for (int i = 0; i < outputFiles.length; i++) {
+					moveAtomically(temporaryFiles[i], outputFiles[i]);
+				}
+				OM.println("File " + inputFile + " converted in " + (System.currentTimeMillis() - startTime) + " ms.");
+			} else {
+				OM.println("File " + inputFile + " could not be converted.");
+			}
+		}
+		catch (IOException | RuntimeException ex) {
+			OM.println("File " + inputFile + " could not be converted: " + ex.toString());
+		}
+		finally {
+			for (Path temporaryFile : temporaryFiles) {
+				try {
+					if (temporaryFile != null) {
+						Files.deleteIfExists(temporaryFile);
+					}
+				} catch (IOException exception) {
+					OM.println(exception.toString());
+				}
+			}
+			synchronized (pendingFiles) {
+				filesInConversion.remove(inputFile);
+				filesInConversion.removeAll(Arrays.asList(outputFiles));
+			}
+		}
+	}
+
+	/**
+	 * Creates new hidden temporary file in the directory of given output file, with a unique name.
+	 * Unlike {@link Files#createTempFile(Path, String, String, java.nio.file.attribute.FileAttribute...)}, which makes the file readable only by its owner,
+	 * the file is created with default permissions, so the output file to which it is moved is readable like any other file created in the output directory.
+	 *
+	 * @param outputFile output file
+	 * @return created temporary file
+	 *
+	 * @throws IOException if the file cannot be created
+	 */
+	static Path createTemporaryFile(Path outputFile) throws IOException {
+		String prefix = "." + outputFile.getFileName() + ".";
+		while (true) {
+			try {
+				return Files.createFile(outputFile.resolveSibling(prefix + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + TEMPORARY_SUFFIX));
+			} catch (FileAlreadyExistsException exception) {
+				//try another name
+			}
+		}
+	}
+
+	/**
+	 * Moves given source file to given target file, replacing the target file, atomically if the file system supports it.
+	 *
+	 * @param source file to be moved
+	 * @param target new name of the file
+	 *
+	 * @throws IOException if the file cannot be moved
+	 */
+	private static void moveAtomically(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException exception) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Application entry point.
+	 *
+	 * @param args input arguments of this converter.
+	 *        Syntax: WatchFolderConverter <input-directory> <output-directory> [<input-directory> <output-directory> ...] [<use-pretty-printing>]
+	 */
+	public static void main(String[] args) {
+		//set system console as default message output
+		SystemOut systemOut = new SystemOut();
+		OM.addOutput(systemOut);
+		OM.setDefaultOutput(systemOut.getKey());
+
+		boolean prettyPrinting = args.length % 2 == 1 && args[args.length - 1].strip().equalsIgnoreCase("pretty");
+		int directoriesCount = prettyPrinting ? args.length - 1 : args.length;
+
+		if (directoriesCount < 2 || directoriesCount % 2 == 1) {
+			OM.println("Wrong number of parameters.");
+			OM.println("Syntax:");
+			OM.println("WatchFolderConverter <input-directory> <output-directory> [<input-directory> <output-directory> ...] [<pretty>]");
+			OM.println("Example:");
+			OM.println("WatchFolderConverter incoming/isf converted/json incoming/rules converted/ruleml pretty");
+			return;
+		}
+
+		try (WatchFolderConverter watchFolderConverter = new WatchFolderConverter(prettyPrinting, Runtime.getRuntime().availableProcessors(), DEFAULT_QUIET_PERIOD_MILLIS)) {
+			for (int i = 0; i < directoriesCount; i += 2) {
+				watchFolderConverter.register(Paths.get(args[i]), Paths.get(args[i + 1]));
+			}
+			watchFolderConverter.run();
+		}
+		catch (IOException ex) {
+			OM.println(ex.toString());
+		}
+	}
+
+}
@@ -30,6 +30,20 @@ import org.rulelearn.types.UnknownSimpleFieldMV2;
  */
 public class jRSAttributes2rLAttributes {
 	
+	/**
+	 * Converter of initial values of jRS attributes.
+	 */
+	private jRSField2rLField fieldConverter;
+	
+	/**
+	 * Constructs this converter using given field cache.
+	 * 
+	 * @param fieldCache cache of ruleLearn fields, owned by the conversion using this converter
+	 */
+	public jRSAttributes2rLAttributes(FieldCache fieldCache) {
+		this.fieldConverter = new jRSField2rLField(fieldCache);
+	}
+	
 	/**
 	 * Converts attributes from jRS memory representation to ruleLearn memory representation.
 	 * 
@@ -75,7 +89,7 @@ public class jRSAttributes2rLAttributes {
 			default: throw new InvalidValueException("Incorrect type (kind) of attribute no. " + (j+1));
 			}
 			
-			valueType = (new jRSField2rLField()).convertjRSField2rLField(jRSattribute.getInitialValue(), preferenceType);
+			valueType = fieldConverter.convertjRSField2rLField(jRSattribute.getInitialValue(), preferenceType);
 			
 			//EvaluationAttribute(String name, boolean active, AttributeType type, EvaluationField valueType, UnknownSimpleField missingValueType, AttributePreferenceType preferenceType)
 			rLAttributes[j] = new EvaluationAttribute(jRSattribute.getName(), jRSattribute.getActive(), attributeType, valueType, new UnknownSimpleFieldMV2(), preferenceType);
@@ -18,15 +18,13 @@ package org.rulelearn.converters;
 
 import java.security.NoSuchAlgorithmException;
 
+import org.rulelearn.core.InvalidValueException;
 import org.rulelearn.data.AttributePreferenceType;
 import org.rulelearn.types.ElementList;
 import org.rulelearn.types.EnumerationField;
-import org.rulelearn.types.EnumerationFieldCachingFactory;
 import org.rulelearn.types.EvaluationField;
 import org.rulelearn.types.IntegerField;
-import org.rulelearn.types.IntegerFieldCachingFactory;
 import org.rulelearn.types.RealField;
-import org.rulelearn.types.RealFieldCachingFactory;
 
 import pl.poznan.put.cs.idss.jrs.types.EnumDomain;
 
@@ -37,6 +35,33 @@ import pl.poznan.put.cs.idss.jrs.types.EnumDomain;
  */
 public class jRSField2rLField {
 	
+	/**
+	 * Cache of ruleLearn fields used by this converter.
+	 */
+	private FieldCache fieldCache;
+	
+	/**
+	 * Constructs this converter using given field cache.
+	 * 
+	 * @param fieldCache cache of ruleLearn fields, owned by the conversion using this converter
+	 * @throws NullPointerException if given field cache is {@code null}
+	 */
+	public jRSField2rLField(FieldCache fieldCache) {
+		if (fieldCache == null) {
+			throw new NullPointerException("Field cache is null.");
+		}
+		this.fieldCache = fieldCache;
+	}
+	
+	/**
+	 * Gets cache of ruleLearn fields used by this converter.
+	 * 
+	 * @return cache of ruleLearn fields used by this converter
+	 */
+	public FieldCache getFieldCache() {
+		return fieldCache;
+	}
+	
 	/**
 	 * Converts given jRS field to corresponding ruleLearn field.
 	 * The correspondence is as follows:
@@ -45,7 +70,7 @@ public class jRSField2rLField {
 	 * <li>{@link pl.poznan.put.cs.idss.jrs.types.FloatField} is converted to {@link RealField},</li>
 	 * <li>{@link pl.poznan.put.cs.idss.jrs.types.EnumField} is converted to {@link EnumerationField}</li>
 	 * </ol>
-	 * Uses respective caching factory with volatile cache.
+	 * Takes fields from the {@link FieldCache field cache} of this converter.
 	 * 
 	 * @param jRSField jRS field to be converted to ruleLearn field
 	 * @param preferenceType preference type of the respective ruleLearn attribute
@@ -58,10 +83,10 @@ public class jRSField2rLField {
 		EvaluationField rLField = null;
 		
 		if (jRSField instanceof pl.poznan.put.cs.idss.jrs.types.IntegerField) {
-			rLField = IntegerFieldCachingFactory.getInstance().create(((pl.poznan.put.cs.idss.jrs.types.IntegerField)jRSField).get(), preferenceType, false);
+			rLField = fieldCache.getIntegerField(((pl.poznan.put.cs.idss.jrs.types.IntegerField)jRSField).get(), preferenceType);
 		} else {
 			if (jRSField instanceof pl.poznan.put.cs.idss.jrs.types.FloatField) {
-				rLField = RealFieldCachingFactory.getInstance().create(((pl.poznan.put.cs.idss.jrs.types.FloatField)jRSField).get(), preferenceType, false);
+				rLField = fieldCache.getRealField(((pl.poznan.put.cs.idss.jrs.types.FloatField)jRSField).get(), preferenceType);
 			} else {
 				if (jRSField instanceof pl.poznan.put.cs.idss.jrs.types.EnumField) {
 					EnumDomain enumDomain = ((pl.poznan.put.cs.idss.jrs.types.EnumField)jRSField).getDomain();
@@ -76,7 +101,7 @@ public class jRSField2rLField {
 					} catch (NoSuchAlgorithmException exception) {
 						throw new UnsupportedOperationException("Cannot process jRS enum field."); //this should not happen if default algorithm in ElementList is set correctly
 					}
-					rLField = EnumerationFieldCachingFactory.getInstance().create(elementList, ((pl.poznan.put.cs.idss.jrs.types.EnumField)jRSField).getIndex(), preferenceType, false);
+					rLField = fieldCache.getEnumerationField(elementList, ((pl.poznan.put.cs.idss.jrs.types.EnumField)jRSField).getIndex(), preferenceType);
 				} else {
 					throw new UnsupportedOperationException("Cannot process jRS field of type other than integer, float, or enum.");
 				} //else
@@ -86,4 +111,46 @@ public class jRSField2rLField {
 		return rLField;
 	}
 
+	/**
+	 * Converts textual representation of a jRS field, as written in a jRS *.rules file, to corresponding ruleLearn field
+	 * of the same type as given value type of a ruleLearn attribute.
+	 * Takes fields from the {@link FieldCache field cache} of this converter.
+	 * 
+	 * @param jRSFieldText textual representation of a jRS field, e.g., "5801", "4.5", or name of an element of enum domain
+	 * @param valueType value type of the respective ruleLearn attribute (one of {@link IntegerField}, {@link RealField}, or {@link EnumerationField})
+	 * @param preferenceType preference type of the respective ruleLearn attribute
+	 * 
+	 * @return ruleLearn evaluation field corresponding to given text
+	 * @throws InvalidValueException if given text does not represent a value of given type
+	 * @throws UnsupportedOperationException if given value type is different than {@link IntegerField}, {@link RealField} or {@link EnumerationField}
+	 */
+	public EvaluationField convertjRSText2rLField(String jRSFieldText, EvaluationField valueType, AttributePreferenceType preferenceType) {
+		EvaluationField rLField = null;
+		
+		try {
+			if (valueType instanceof IntegerField) {
+				rLField = fieldCache.getIntegerField(Integer.parseInt(jRSFieldText), preferenceType);
+			} else {
+				if (valueType instanceof RealField) {
+					rLField = fieldCache.getRealField(Double.parseDouble(jRSFieldText), preferenceType);
+				} else {
+					if (valueType instanceof EnumerationField) {
+						ElementList elementList = ((EnumerationField)valueType).getElementList();
+						int index = elementList.getIndex(jRSFieldText);
+						if (index < 0) {
+							throw new InvalidValueException("Value " + jRSFieldText + " does not belong to enum domain.");
+						}
+						rLField = fieldCache.getEnumerationField(elementList, index, preferenceType);
+					} else {
+						throw new UnsupportedOperationException("Cannot process field of type other than integer, real, or enumeration.");
+					} //else
+				} //else
+			} //else
+		} catch (NumberFormatException exception) {
+			throw new InvalidValueException("Value " + jRSFieldText + " is not a number.");
+		}
+		
+		return rLField;
+	}
+
 }
@@ -0,0 +1,216 @@
+/**
+ * Copyright (C) Marcin Szeląg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rulelearn.converters;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.rulelearn.core.InvalidValueException;
+import org.rulelearn.data.EvaluationAttribute;
+import org.rulelearn.data.InformationTable;
+import org.rulelearn.rules.Condition;
+import org.rulelearn.rules.Rule;
+import org.rulelearn.rules.RuleSetWithCharacteristics;
+import org.rulelearn.types.EnumerationField;
+import org.rulelearn.types.EnumerationFieldFactory;
+import org.rulelearn.types.EvaluationField;
+import org.rulelearn.types.Field;
+import org.rulelearn.types.IntegerFieldFactory;
+import org.rulelearn.types.RealFieldFactory;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * Tests for {@link RuleCharacteristicsVerifier}.
+ *
+ * @author Marcin Szeląg (<a href="mailto:marcin.szelag@cs.put.poznan.pl">marcin.szelag@cs.put.poznan.pl</a>)
+ */
+class RuleCharacteristicsVerifierTest {
+
+	/**
+	 * Rules concerning gain-type attribute a1, cost-type attribute a2, and attribute a3 without preference.
+	 * Rules are not written in the order of their groups, and only rule 1 has (incorrect) support.
+	 */
+	private static final String RULES =
+			"[ATTRIBUTES]\n" +
+			"+ a1: (integer), gain\n" +
+			"+ a2: (continuous), cost\n" +
+			"+ a3: [x, y, z], none\n" +
+			"+ d: [1, 2], gain\n" +
+			"decision: d\n" +
+			"\n" +
+			"[RULES]\n" +
+			"1: (a1 <= 2) => (d <= 1) |CERTAIN, AT_MOST, 1|\n" +
+			"2: (a1 >= 5) & (a2 <= 1.5) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n" +
+			"3: (a1 >= 3) & (a3 >= y) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n" +
+			"4: (a3 = z) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n" +
+			"5: (a2 >= 3.0) => (d <= 1) |CERTAIN, AT_MOST, 1|\n" +
+			"6: (a1 >= 0) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n" +
+			"7: (a1 >= 5) => (d <= 1) |CERTAIN, AT_MOST, 1|\n" +
+			"\n" +
+			"[RULESINFO]\n" +
+			"1: (a1 <= 2) => (d <= 1) |CERTAIN, AT_MOST, 1|\n" +
+			"Support: 1000\n" +
+			"\n" +
+			"2: (a1 >= 5) & (a2 <= 1.5) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n" +
+			"3: (a1 >= 3) & (a3 >= y) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n" +
+			"4: (a3 = z) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n" +
+			"5: (a2 >= 3.0) => (d <= 1) |CERTAIN, AT_MOST, 1|\n" +
+			"6: (a1 >= 0) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n" +
+			"7: (a1 >= 5) => (d <= 1) |CERTAIN, AT_MOST, 1|\n";
+
+	/**
+	 * Tests {@link RuleCharacteristicsVerifier#getLastWordMask(int)} for numbers of objects around multiples of 64.
+	 */
+	@Test
+	void testGetLastWordMask() {
+		assertEquals(1L, RuleCharacteristicsVerifier.getLastWordMask(1));
+		assertEquals(Long.MAX_VALUE, RuleCharacteristicsVerifier.getLastWordMask(63));
+		assertEquals(-1L, RuleCharacteristicsVerifier.getLastWordMask(64));
+		assertEquals(1L, RuleCharacteristicsVerifier.getLastWordMask(65));
+		assertEquals(-1L, RuleCharacteristicsVerifier.getLastWordMask(128));
+	}
+
+	/**
+	 * Tests if coverage and support computed using bitsets, with and without cached bitsets, are the same as computed by checking each condition
+	 * of each rule for each object, for numbers of objects smaller than, equal to, and greater than multiples of 64.
+	 */
+	@Test
+	void testComputeCoverageAndSupport() throws IOException {
+		EvaluationAttribute[] attributes;
+		RuleSetWithCharacteristics ruleSet;
+		try (RulesFileParser rulesFileParser = new RulesFileParser(new StringReader(RULES), new FieldCache())) {
+			attributes = rulesFileParser.getAttributes();
+			ruleSet = RuleIndexTest.convertRules(rulesFileParser);
+		}
+
+		for (int objectsCount : new int[] {1, 63, 64, 65, 127, 128, 129, 1000}) {
+			InformationTable informationTable = createInformationTable(attributes, objectsCount);
+			int[] expectedCoverages = new int[ruleSet.size()];
+			int[] expectedSupports = new int[ruleSet.size()];
+
+			for (int ruleId = 0; ruleId < ruleSet.size(); ruleId++) {
+				Rule rule = ruleSet.getRule(ruleId);
+				for (int objectIndex = 0; objectIndex < objectsCount; objectIndex++) {
+					boolean covered = true;
+					for (Condition<? extends EvaluationField> condition : rule.getConditions()) {
+						covered = covered && condition.satisfiedBy(objectIndex, informationTable);
+					}
+					if (covered) {
+						expectedCoverages[ruleId]++;
+						if (rule.getDecision().satisfiedBy(objectIndex, informationTable)) {
+							expectedSupports[ruleId]++;
+						}
+					}
+				}
+			}
+
+			for (long cacheSize : new long[] {RuleCharacteristicsVerifier.DEFAULT_CACHE_SIZE, 0L}) {
+				int[][] coverageAndSupport = (new RuleCharacteristicsVerifier(informationTable, cacheSize)).computeCoverageAndSupport(ruleSet);
+				assertArrayEquals(expectedCoverages, coverageAndSupport[0], "Objects: " + objectsCount + ", cache size: " + cacheSize);
+				assertArrayEquals(expectedSupports, coverageAndSupport[1], "Objects: " + objectsCount + ", cache size: " + cacheSize);
+			}
+			assertEquals(objectsCount, expectedCoverages[3]); //rule 6, at position 3 after grouping, covers all objects, also in the last (partial) word of bitsets
+		}
+	}
+
+	/**
+	 * Tests if rules with incorrect characteristics are identified by their numbers in *.rules file, and, when these are not given,
+	 * by their positions in the rule set.
+	 */
+	@Test
+	void testVerify() throws IOException {
+		EvaluationAttribute[] attributes;
+		RuleSetWithCharacteristics ruleSet;
+		IntArrayList ruleNumbers = new IntArrayList();
+		try (RulesFileParser rulesFileParser = new RulesFileParser(new StringReader(RULES), new FieldCache())) {
+			attributes = rulesFileParser.getAttributes();
+			ruleSet = (new Rules2RuleMLConverter()).convertParsedRules2RuleSet(rulesFileParser, ruleNumbers);
+		}
+		assertArrayEquals(new int[] {2, 3, 4, 6, 1, 5, 7}, ruleNumbers.toIntArray()); //at least rules precede at most rules
+
+		RuleCharacteristicsVerifier verifier = new RuleCharacteristicsVerifier(createInformationTable(attributes, 100));
+		List<String> differences = verifier.verify(ruleSet, ruleNumbers.toIntArray());
+		assertEquals(1, differences.size());
+		assertTrue(differences.get(0).startsWith("Rule 1 (stored vs recomputed): support: 1000 vs "));
+
+		differences = verifier.verify(ruleSet);
+		assertEquals(1, differences.size());
+		assertTrue(differences.get(0).startsWith("Rule 5 (stored vs recomputed): support: 1000 vs "));
+	}
+
+	/**
+	 * Tests {@link RuleCharacteristicsVerifier#checkSameAttributes(org.rulelearn.data.Attribute[], org.rulelearn.data.Attribute[])}
+	 * for attributes differing in name, value type, elements of enumeration, preference type, and number.
+	 */
+	@Test
+	void testCheckSameAttributes() throws IOException {
+		EvaluationAttribute[] attributes = parseAttributes(RULES);
+		RuleCharacteristicsVerifier.checkSameAttributes(attributes, parseAttributes(RULES));
+
+		String[][] replacements = {
+				{"+ a1: (integer)", "+ b1: (integer)", "name"},
+				{"+ a1: (integer)", "+ a1: (continuous)", "value type"},
+				{"+ a3: [x, y, z]", "+ a3: [x, z, y]", "value type"},
+				{"+ a2: (continuous), cost", "+ a2: (continuous), gain", "preference type"}};
+		for (String[] replacement : replacements) {
+			InvalidValueException exception = assertThrows(InvalidValueException.class,
+					() -> RuleCharacteristicsVerifier.checkSameAttributes(attributes, parseAttributes(RULES.replace(replacement[0], replacement[1]))));
+			assertTrue(exception.getMessage().endsWith(" have different " + replacement[2] + "."), exception.getMessage());
+		}
+
+		assertThrows(InvalidValueException.class,
+				() -> RuleCharacteristicsVerifier.checkSameAttributes(attributes, parseAttributes(RULES.replace("+ d: [1, 2], gain\n", "+ d: [1, 2], gain\n+ e: (integer), gain\n"))));
+	}
+
+	/**
+	 * Gets attributes from given contents of *.rules file.
+	 */
+	private EvaluationAttribute[] parseAttributes(String rules) throws IOException {
+		try (RulesFileParser rulesFileParser = new RulesFileParser(new StringReader(rules), new FieldCache())) {
+			return rulesFileParser.getAttributes();
+		}
+	}
+
+	/**
+	 * Creates information table for attributes from {@link #RULES}, with every 11th evaluation on a1 and every 13th evaluation on a2 missing.
+	 */
+	private InformationTable createInformationTable(EvaluationAttribute[] attributes, int objectsCount) {
+		List<Field[]> rows = new ObjectArrayList<Field[]>(objectsCount);
+		EnumerationField a3 = (EnumerationField)attributes[2].getValueType();
+		EnumerationField d = (EnumerationField)attributes[3].getValueType();
+
+		for (int objectIndex = 0; objectIndex < objectsCount; objectIndex++) {
+			rows.add(new Field[] {
+					objectIndex % 11 == 10 ? attributes[0].getMissingValueType() : IntegerFieldFactory.getInstance().create(objectIndex % 10, attributes[0].getPreferenceType()),
+					objectIndex % 13 == 12 ? attributes[1].getMissingValueType() : RealFieldFactory.getInstance().create((objectIndex % 9) * 0.5, attributes[1].getPreferenceType()),
+					EnumerationFieldFactory.getInstance().create(a3.getElementList(), objectIndex % 3, attributes[2].getPreferenceType()),
+					EnumerationFieldFactory.getInstance().create(d.getElementList(), (objectIndex / 2) % 2, attributes[3].getPreferenceType())});
+		}
+
+		return new InformationTable(attributes, rows, true);
+	}
+
+}
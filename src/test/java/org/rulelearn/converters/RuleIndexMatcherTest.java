@@ -0,0 +1,185 @@
+/**
+ * Copyright (C) Marcin Szeląg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rulelearn.converters;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.rulelearn.converters.RuleIndex.ThresholdType;
+import org.rulelearn.data.EvaluationAttribute;
+import org.rulelearn.data.InformationTable;
+import org.rulelearn.rules.Condition;
+import org.rulelearn.rules.RuleSetWithCharacteristics;
+import org.rulelearn.types.EnumerationField;
+import org.rulelearn.types.EnumerationFieldFactory;
+import org.rulelearn.types.EvaluationField;
+import org.rulelearn.types.Field;
+import org.rulelearn.types.IntegerField;
+import org.rulelearn.types.IntegerFieldFactory;
+import org.rulelearn.types.RealFieldFactory;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * Tests for {@link RuleIndexMatcher}.
+ *
+ * @author Marcin Szeląg (<a href="mailto:marcin.szelag@cs.put.poznan.pl">marcin.szelag@cs.put.poznan.pl</a>)
+ */
+class RuleIndexMatcherTest {
+
+	/**
+	 * Tests {@link RuleIndexMatcher#firstGreater(double[], double)} and {@link RuleIndexMatcher#firstNotLess(double[], double)}
+	 * for values below, between, equal to (repeated), and above thresholds.
+	 */
+	@Test
+	void testBinarySearch() {
+		double[] thresholds = {1.0, 2.0, 2.0, 2.0, 5.0};
+
+		assertEquals(0, RuleIndexMatcher.firstGreater(thresholds, 0.5));
+		assertEquals(0, RuleIndexMatcher.firstNotLess(thresholds, 0.5));
+		assertEquals(1, RuleIndexMatcher.firstGreater(thresholds, 1.0));
+		assertEquals(0, RuleIndexMatcher.firstNotLess(thresholds, 1.0));
+		assertEquals(4, RuleIndexMatcher.firstGreater(thresholds, 2.0));
+		assertEquals(1, RuleIndexMatcher.firstNotLess(thresholds, 2.0));
+		assertEquals(4, RuleIndexMatcher.firstGreater(thresholds, 3.0));
+		assertEquals(4, RuleIndexMatcher.firstNotLess(thresholds, 3.0));
+		assertEquals(5, RuleIndexMatcher.firstGreater(thresholds, 5.0));
+		assertEquals(4, RuleIndexMatcher.firstNotLess(thresholds, 5.0));
+		assertEquals(5, RuleIndexMatcher.firstGreater(thresholds, 6.0));
+		assertEquals(5, RuleIndexMatcher.firstNotLess(thresholds, 6.0));
+
+		assertEquals(0, RuleIndexMatcher.firstGreater(new double[0], 1.0));
+		assertEquals(0, RuleIndexMatcher.firstNotLess(new double[0], 1.0));
+	}
+
+	/**
+	 * Tests matching of objects against rules from {@link RuleIndexTest#RULES}, including boundary and missing evaluations,
+	 * and a rule with condition concerning attribute without preference.
+	 */
+	@Test
+	void testGetCoveringRules() throws IOException {
+		RuleIndex ruleIndex;
+		try (RulesFileParser rulesFileParser = new RulesFileParser(new StringReader(RuleIndexTest.RULES), new FieldCache())) {
+			ruleIndex = new RuleIndex(RuleIndexTest.convertRules(rulesFileParser), rulesFileParser.getAttributes());
+		}
+		RuleIndexMatcher matcher = new RuleIndexMatcher(ruleIndex);
+		double missing = Double.NaN;
+
+		//a2 is cost-type, so rule 1 requires a2 to be at least 1.5, and rule 5 requires a2 to be at most 3.0
+		//thresholds of rule 1 are reached exactly
+		assertArrayEquals(new int[] {0, 1, 4}, matcher.getCoveringRules(new double[] {5.0, 1.5, 0.0, 0.0}));
+		//threshold of rule 4 (a1 <= 2) is reached exactly
+		assertArrayEquals(new int[] {3}, matcher.getCoveringRules(new double[] {2.0, 4.0, 0.0, 0.0}));
+		//rule 2 (a1 >= 3 & a3 >= y) is returned as a candidate, as its condition on a3 is not indexed
+		assertArrayEquals(new int[] {1}, matcher.getCoveringRules(new double[] {3.0, 4.0, 0.0, 0.0}));
+		//rule 3 (a3 = z) and rule 5, whose threshold is reached exactly
+		assertArrayEquals(new int[] {1, 2, 4}, matcher.getCoveringRules(new double[] {4.0, 3.0, 2.0, 0.0}));
+		//missing evaluation satisfies each condition concerning the respective attribute
+		assertArrayEquals(new int[] {1, 3, 4}, matcher.getCoveringRules(new double[] {missing, 1.0, 0.0, 0.0}));
+		assertArrayEquals(new int[] {0, 1, 2, 3, 4}, matcher.getCoveringRules(new double[] {missing, missing, missing, missing}));
+		//matcher is reused for subsequent objects
+		assertArrayEquals(new int[0], matcher.getCoveringRules(new double[] {2.5, 4.0, 0.0, 0.0}));
+	}
+
+	/**
+	 * Tests if rules from GermanCredit.rules found by {@link RuleIndexMatcher} are the same as rules found by checking each condition of each rule,
+	 * for objects with evaluations equal to, or close to, thresholds of the rules, and with some missing evaluations.
+	 */
+	@Test
+	void testGetCoveringRulesSameAsFullScan() throws IOException {
+		EvaluationAttribute[] attributes;
+		RuleSetWithCharacteristics ruleSet;
+		try (RulesFileParser rulesFileParser = new RulesFileParser(Rules2RuleMLConverterTest.RULES_FILE_PATH, new FieldCache())) {
+			attributes = rulesFileParser.getAttributes();
+			ruleSet = RuleIndexTest.convertRules(rulesFileParser);
+		}
+		RuleIndex ruleIndex = new RuleIndex(ruleSet, attributes);
+		InformationTable informationTable = createInformationTable(attributes, ruleIndex, 2000, new Random(0));
+		RuleIndexMatcher matcher = new RuleIndexMatcher(ruleIndex);
+		int coveredCount = 0;
+
+		for (int objectIndex = 0; objectIndex < informationTable.getNumberOfObjects(); objectIndex++) {
+			IntArrayList expected = new IntArrayList();
+			for (int ruleId = 0; ruleId < ruleSet.size(); ruleId++) {
+				boolean covered = true;
+				for (Condition<? extends EvaluationField> condition : ruleSet.getRule(ruleId).getConditions()) {
+					covered = covered && condition.satisfiedBy(objectIndex, informationTable);
+				}
+				if (covered) {
+					expected.add(ruleId);
+				}
+			}
+			int[] actual = matcher.getCoveringRules(informationTable, objectIndex);
+
+			IntArrayList verified = new IntArrayList();
+			for (int ruleId : actual) {
+				if (!ruleIndex.requiresVerification(ruleId) || expected.contains(ruleId)) {
+					verified.add(ruleId);
+				}
+			}
+			assertArrayEquals(expected.toIntArray(), verified.toIntArray(), "Object " + objectIndex);
+			coveredCount += expected.size();
+		}
+		assertTrue(coveredCount > 0);
+	}
+
+	/**
+	 * Creates information table whose objects have evaluations equal to a threshold of some rule, or differing from it by one step,
+	 * or random evaluations. About 5% of evaluations are missing.
+	 */
+	private InformationTable createInformationTable(EvaluationAttribute[] attributes, RuleIndex ruleIndex, int objectsCount, Random random) {
+		List<Field[]> rows = new ObjectArrayList<Field[]>(objectsCount);
+
+		for (int objectIndex = 0; objectIndex < objectsCount; objectIndex++) {
+			Field[] row = new Field[attributes.length];
+			for (int i = 0; i < attributes.length; i++) {
+				EvaluationField valueType = attributes[i].getValueType();
+				IntArrayList thresholds = new IntArrayList();
+				for (ThresholdType thresholdType : ThresholdType.values()) {
+					for (double threshold : ruleIndex.getThresholds(i, thresholdType)) {
+						thresholds.add((int)Math.round(threshold));
+					}
+				}
+				int value = thresholds.isEmpty() || random.nextInt(4) == 0 ? random.nextInt(20) : thresholds.getInt(random.nextInt(thresholds.size())) + random.nextInt(3) - 1;
+
+				if (random.nextInt(20) == 0) {
+					row[i] = attributes[i].getMissingValueType();
+				} else if (valueType instanceof EnumerationField) {
+					EnumerationField enumerationField = (EnumerationField)valueType;
+					int index = Math.floorMod(value, enumerationField.getElementList().getSize());
+					row[i] = EnumerationFieldFactory.getInstance().create(enumerationField.getElementList(), index, attributes[i].getPreferenceType());
+				} else if (valueType instanceof IntegerField) {
+					row[i] = IntegerFieldFactory.getInstance().create(value, attributes[i].getPreferenceType());
+				} else {
+					row[i] = RealFieldFactory.getInstance().create(value + random.nextInt(3) * 0.5 - 0.5, attributes[i].getPreferenceType());
+				}
+			}
+			rows.add(row);
+		}
+
+		return new InformationTable(attributes, rows, true);
+	}
+
+}
@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) Marcin Szeląg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rulelearn.converters;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.rulelearn.converters.RuleIndex.ThresholdType;
+import org.rulelearn.core.InvalidValueException;
+import org.rulelearn.rules.RuleSetWithCharacteristics;
+
+/**
+ * Tests for {@link RuleIndex}.
+ *
+ * @author Marcin Szeląg (<a href="mailto:marcin.szelag@cs.put.poznan.pl">marcin.szelag@cs.put.poznan.pl</a>)
+ */
+class RuleIndexTest {
+
+	/**
+	 * Rules concerning gain-type attribute a1, cost-type attribute a2, and attribute a3 without preference.
+	 */
+	static final String RULES =
+			"[ATTRIBUTES]\n" +
+			"+ a1: (integer), gain\n" +
+			"+ a2: (continuous), cost\n" +
+			"+ a3: [x, y, z], none\n" +
+			"+ d: [1, 2], gain\n" +
+			"decision: d\n" +
+			"\n" +
+			"[RULES]\n" +
+			"1: (a1 >= 5) & (a2 <= 1.5) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n" +
+			"2: (a1 >= 3) & (a3 >= y) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n" +
+			"3: (a3 = z) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n" +
+			"4: (a1 <= 2) => (d <= 1) |CERTAIN, AT_MOST, 1|\n" +
+			"5: (a2 >= 3.0) => (d <= 1) |CERTAIN, AT_MOST, 1|\n";
+
+	static RuleSetWithCharacteristics convertRules(RulesFileParser rulesFileParser) throws IOException {
+		return (new Rules2RuleMLConverter()).convertParsedRules2RuleSet(rulesFileParser);
+	}
+
+	/**
+	 * Tests if conditions are stored as lower bounds, upper bounds, or exact values, according to preference types of attributes,
+	 * and if conditions "at least" and "at most" concerning an attribute without preference are not stored.
+	 */
+	@Test
+	void testConstruct() throws IOException {
+		RuleIndex ruleIndex;
+		try (RulesFileParser rulesFileParser = new RulesFileParser(new StringReader(RULES), new FieldCache())) {
+			ruleIndex = new RuleIndex(convertRules(rulesFileParser), rulesFileParser.getAttributes());
+		}
+
+		assertEquals(5, ruleIndex.getRulesCount());
+		assertEquals(4, ruleIndex.getAttributesCount());
+
+		assertArrayEquals(new double[] {3.0, 5.0}, ruleIndex.getThresholds(0, ThresholdType.LOWER_BOUND));
+		assertArrayEquals(new int[] {1, 0}, ruleIndex.getRuleIds(0, ThresholdType.LOWER_BOUND));
+		assertArrayEquals(new double[] {2.0}, ruleIndex.getThresholds(0, ThresholdType.UPPER_BOUND));
+		assertArrayEquals(new int[] {3}, ruleIndex.getRuleIds(0, ThresholdType.UPPER_BOUND));
+
+		//cost-type attribute: "at most" is a lower bound, and "at least" is an upper bound
+		assertArrayEquals(new double[] {1.5}, ruleIndex.getThresholds(1, ThresholdType.LOWER_BOUND));
+		assertArrayEquals(new int[] {0}, ruleIndex.getRuleIds(1, ThresholdType.LOWER_BOUND));
+		assertArrayEquals(new double[] {3.0}, ruleIndex.getThresholds(1, ThresholdType.UPPER_BOUND));
+		assertArrayEquals(new int[] {4}, ruleIndex.getRuleIds(1, ThresholdType.UPPER_BOUND));
+
+		//attribute without preference: only "equal" is stored
+		assertEquals(0, ruleIndex.getThresholds(2, ThresholdType.LOWER_BOUND).length);
+		assertEquals(0, ruleIndex.getThresholds(2, ThresholdType.UPPER_BOUND).length);
+		assertArrayEquals(new double[] {2.0}, ruleIndex.getThresholds(2, ThresholdType.EQUAL));
+		assertArrayEquals(new int[] {2}, ruleIndex.getRuleIds(2, ThresholdType.EQUAL));
+
+		assertArrayEquals(new int[] {1}, ruleIndex.getRuleIdsToVerify());
+		assertTrue(ruleIndex.requiresVerification(1));
+		assertFalse(ruleIndex.requiresVerification(0));
+		assertEquals(2, ruleIndex.getConditionsCount(0));
+		assertEquals(1, ruleIndex.getConditionsCount(1));
+		assertEquals(0, ruleIndex.getUnconditionalRuleIds().length);
+
+		Map<String, int[]> decisionRuleIds = ruleIndex.getDecisionRuleIds();
+		assertEquals(2, decisionRuleIds.size());
+		assertArrayEquals(new int[] {0, 1, 2}, decisionRuleIds.get("d >= 2"));
+		assertArrayEquals(new int[] {3, 4}, decisionRuleIds.get("d <= 1"));
+	}
+
+	/**
+	 * Tests if index of rules from GermanCredit.rules, written by {@link RuleIndex#write(String)}, is read back by {@link RuleIndex#read(String)}
+	 * without changes.
+	 */
+	@Test
+	void testWriteRead() throws IOException {
+		RuleIndex ruleIndex;
+		try (RulesFileParser rulesFileParser = new RulesFileParser(Rules2RuleMLConverterTest.RULES_FILE_PATH, new FieldCache())) {
+			ruleIndex = new RuleIndex(convertRules(rulesFileParser), rulesFileParser.getAttributes());
+		}
+		Path ruleIndexFile = Files.createTempFile("RuleIndexTest", ".rlix");
+
+		try {
+			ruleIndex.write(ruleIndexFile.toString());
+			RuleIndex readRuleIndex = RuleIndex.read(ruleIndexFile.toString());
+
+			assertEquals(315, readRuleIndex.getRulesCount());
+			assertEquals(ruleIndex.getAttributesCount(), readRuleIndex.getAttributesCount());
+			for (int i = 0; i < ruleIndex.getAttributesCount(); i++) {
+				for (ThresholdType thresholdType : ThresholdType.values()) {
+					assertArrayEquals(ruleIndex.getThresholds(i, thresholdType), readRuleIndex.getThresholds(i, thresholdType));
+					assertArrayEquals(ruleIndex.getRuleIds(i, thresholdType), readRuleIndex.getRuleIds(i, thresholdType));
+				}
+			}
+			for (int ruleId = 0; ruleId < ruleIndex.getRulesCount(); ruleId++) {
+				assertEquals(ruleIndex.getConditionsCount(ruleId), readRuleIndex.getConditionsCount(ruleId));
+			}
+			assertArrayEquals(ruleIndex.getRuleIdsToVerify(), readRuleIndex.getRuleIdsToVerify());
+			assertArrayEquals(ruleIndex.getUnconditionalRuleIds(), readRuleIndex.getUnconditionalRuleIds());
+
+			assertEquals(ruleIndex.getDecisionRuleIds().keySet(), readRuleIndex.getDecisionRuleIds().keySet());
+			for (String decision : ruleIndex.getDecisionRuleIds().keySet()) {
+				assertArrayEquals(ruleIndex.getDecisionRuleIds().get(decision), readRuleIndex.getDecisionRuleIds().get(decision));
+			}
+		} finally {
+			Files.delete(ruleIndexFile);
+		}
+	}
+
+	/**
+	 * Tests if file which is not a rule index file, or has unsupported version, is rejected.
+	 */
+	@Test
+	void testReadIncorrectFile() throws IOException {
+		Path ruleIndexFile = Files.createTempFile("RuleIndexTest", ".rlix");
+
+		try {
+			try (DataOutputStream output = new DataOutputStream(new FileOutputStream(ruleIndexFile.toFile()))) {
+				output.writeInt(0);
+			}
+			assertThrows(InvalidValueException.class, () -> RuleIndex.read(ruleIndexFile.toString()));
+
+			try (DataOutputStream output = new DataOutputStream(new FileOutputStream(ruleIndexFile.toFile()))) {
+				output.writeInt(RuleIndex.MAGIC_NUMBER);
+				output.writeInt(RuleIndex.VERSION + 1);
+			}
+			assertThrows(InvalidValueException.class, () -> RuleIndex.read(ruleIndexFile.toString()));
+		} finally {
+			Files.delete(ruleIndexFile);
+		}
+	}
+
+}
@@ -0,0 +1,268 @@
+/**
+ * Copyright (C) Marcin Szeląg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rulelearn.converters;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rulelearn.core.InvalidValueException;
+import org.rulelearn.rules.RuleSetWithCharacteristics;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import pl.poznan.put.cs.idss.jrs.output.OM;
+import pl.poznan.put.cs.idss.jrs.output.SystemOut;
+
+/**
+ * Tests for {@link Rules2RuleMLConverter}.
+ *
+ * @author Marcin Szeląg (<a href="mailto:marcin.szelag@cs.put.poznan.pl">marcin.szelag@cs.put.poznan.pl</a>)
+ */
+class Rules2RuleMLConverterTest {
+
+	static final String RULES_FILE_PATH = "data/rules/GermanCredit.rules";
+
+	private Path directory;
+
+	@BeforeAll
+	static void setUpMessageOutput() {
+		SystemOut systemOut = new SystemOut();
+		OM.addOutput(systemOut);
+		OM.setDefaultOutput(systemOut.getKey());
+	}
+
+	@BeforeEach
+	void setUp() throws IOException {
+		directory = Files.createTempDirectory("Rules2RuleMLConverterTest");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>)files::iterator) {
+				Files.delete(file);
+			}
+		}
+		Files.delete(directory);
+	}
+
+	/**
+	 * Tests if {@link Rules2RuleMLConverter#convertRules2RuleML(String, String, String, boolean)}, which reads rules using {@link RulesFileParser},
+	 * writes the same attributes and the same RuleML file as {@link Rules2RuleMLConverter#convertRules2RuleMLUsingRulesContainer(String, String, String, boolean)},
+	 * which loads rules into jRS rules container.
+	 */
+	@Test
+	void testConvertRules2RuleMLSameAsUsingRulesContainer() throws IOException {
+		Path expectedAttributesFile = directory.resolve("expected.meta.json");
+		Path expectedRuleMLFile = directory.resolve("expected.rules.xml");
+		Path attributesFile = directory.resolve("GermanCredit.meta.json");
+		Path ruleMLFile = directory.resolve("GermanCredit.rules.xml");
+
+		(new Rules2RuleMLConverter()).convertRules2RuleMLUsingRulesContainer(RULES_FILE_PATH, expectedAttributesFile.toString(), expectedRuleMLFile.toString(), true);
+		assertTrue(Files.exists(expectedRuleMLFile));
+
+		(new Rules2RuleMLConverter()).convertRules2RuleML(RULES_FILE_PATH, attributesFile.toString(), ruleMLFile.toString(), true);
+
+		assertArrayEquals(Files.readAllBytes(expectedAttributesFile), Files.readAllBytes(attributesFile));
+		assertArrayEquals(Files.readAllBytes(expectedRuleMLFile), Files.readAllBytes(ruleMLFile));
+	}
+
+	/**
+	 * Tests if conversions run concurrently by the same converter, each with its own field cache, give the same output as a single conversion.
+	 * Capacity of field caches is small, so that fields are evicted during each conversion.
+	 */
+	@Test
+	void testConcurrentConversionsSameAsSingleConversion() throws Exception {
+		Rules2RuleMLConverter converter = new Rules2RuleMLConverter(16, FieldCache.EvictionPolicy.LRU);
+		String expectedOutput = convert(converter);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try {
+			List<Future<String>> outputs = new ObjectArrayList<Future<String>>();
+			for (int i = 0; i < 8; i++) {
+				outputs.add(executor.submit(() -> convert(converter)));
+			}
+			for (Future<String> output : outputs) {
+				assertEquals(expectedOutput, output.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Tests if numbers of objects in rule statistics are parsed also when written as floating-point numbers with zero fractional part.
+	 */
+	@Test
+	void testParseCount() {
+		assertEquals(5, Rules2RuleMLConverter.parseCount("5"));
+		assertEquals(5, Rules2RuleMLConverter.parseCount("5.0"));
+		assertThrows(InvalidValueException.class, () -> Rules2RuleMLConverter.parseCount("5.5"));
+		assertThrows(InvalidValueException.class, () -> Rules2RuleMLConverter.parseCount("1e10"));
+		assertThrows(NumberFormatException.class, () -> Rules2RuleMLConverter.parseCount("five"));
+	}
+
+	/**
+	 * Tests if RuleML written while rules are converted, in sequential and pipelined mode, is the same as RuleML written for the set of all converted rules,
+	 * for GermanCredit.rules and for more than {@link BatchPipeline#BATCH_SIZE} rules from two groups, given alternately.
+	 */
+	@Test
+	void testConvertParsedRules2RuleMLSameAsWriteRuleML() throws IOException {
+		StringBuilder rules = new StringBuilder(RuleIndexTest.RULES.substring(0, RuleIndexTest.RULES.indexOf(RulesFileParser.RULES_SECTION)));
+		rules.append(RulesFileParser.RULES_SECTION).append('\n');
+		for (int i = 1; i <= 1000; i++) {
+			rules.append(i).append(i % 2 == 0 ? ": (a1 >= " + i + ") => (d >= 2) |CERTAIN, AT_LEAST, 2|\n" : ": (a2 >= " + i + ".5) => (d <= 1) |CERTAIN, AT_MOST, 1|\n");
+		}
+
+		for (boolean pipelined : new boolean[] {false, true}) {
+			Rules2RuleMLConverter converter = new Rules2RuleMLConverter(FieldCache.DEFAULT_CAPACITY, FieldCache.EvictionPolicy.LRU, pipelined);
+
+			StringWriter expectedRuleMLWriter = new StringWriter();
+			RuleSetWithCharacteristics ruleSet;
+			try (RulesFileParser rulesFileParser = new RulesFileParser(RULES_FILE_PATH, new FieldCache())) {
+				ruleSet = converter.convertParsedRules2RuleSet(rulesFileParser);
+			}
+			converter.writeRuleML(ruleSet, expectedRuleMLWriter);
+			StringWriter ruleMLWriter = new StringWriter();
+			try (RulesFileParser rulesFileParser = new RulesFileParser(RULES_FILE_PATH, new FieldCache())) {
+				assertEquals(ruleSet.size(), converter.convertParsedRules2RuleML(rulesFileParser, ruleMLWriter, true).size());
+			}
+			assertEquals(expectedRuleMLWriter.toString(), ruleMLWriter.toString(), "Pipelined: " + pipelined);
+
+			expectedRuleMLWriter = new StringWriter();
+			try (RulesFileParser rulesFileParser = new RulesFileParser(new StringReader(rules.toString()), new FieldCache())) {
+				converter.writeRuleML(converter.convertParsedRules2RuleSet(rulesFileParser), expectedRuleMLWriter);
+			}
+			ruleMLWriter = new StringWriter();
+			try (RulesFileParser rulesFileParser = new RulesFileParser(new StringReader(rules.toString()), new FieldCache())) {
+				assertNull(converter.convertParsedRules2RuleML(rulesFileParser, ruleMLWriter, false));
+			}
+			assertEquals(expectedRuleMLWriter.toString(), ruleMLWriter.toString(), "Pipelined: " + pipelined);
+		}
+	}
+
+	/**
+	 * Tests if, when conversion of rules fails, in sequential and pipelined mode, it waits for the stage writing attributes,
+	 * and reports failure of that stage as suppressed by failure of the conversion.
+	 */
+	@Test
+	void testConvertRules2RuleMLWithIncorrectRule() {
+		StringBuilder rules = new StringBuilder(RuleIndexTest.RULES.substring(0, RuleIndexTest.RULES.indexOf(RulesFileParser.RULES_SECTION)));
+		rules.append(RulesFileParser.RULES_SECTION).append('\n');
+		for (int i = 1; i <= 1000; i++) {
+			rules.append(i).append(": (a1 >= ").append(i).append(") => (d >= 2) |CERTAIN, AT_LEAST, 2|\n");
+		}
+		rules.append("1001: (unknown >= 1) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n");
+
+		for (boolean pipelined : new boolean[] {false, true}) {
+			Rules2RuleMLConverter converter = new Rules2RuleMLConverter(FieldCache.DEFAULT_CAPACITY, FieldCache.EvictionPolicy.LRU, pipelined);
+			Writer failingWriter = new Writer() {
+				@Override
+				public void write(char[] characters, int offset, int length) throws IOException {
+					throw new IOException("Attributes cannot be written.");
+				}
+				@Override
+				public void flush() {
+				}
+				@Override
+				public void close() {
+				}
+			};
+
+			InvalidValueException exception = assertThrows(InvalidValueException.class,
+					() -> converter.convertRules2RuleML(new StringReader(rules.toString()), failingWriter, new StringWriter(), false), "Pipelined: " + pipelined);
+			assertEquals(1, exception.getSuppressed().length, "Pipelined: " + pipelined);
+		}
+	}
+
+	/**
+	 * Tests if conversion of streams, and conversion writing to standard output, do not close given streams, which are owned by the caller,
+	 * and if writing both outputs to standard output is rejected.
+	 */
+	@Test
+	void testConvertRules2RuleMLDoesNotCloseStreams() throws IOException {
+		Rules2RuleMLConverter converter = new Rules2RuleMLConverter();
+		boolean[] closed = new boolean[3];
+
+		InputStream rulesInputStream = new ByteArrayInputStream(RuleIndexTest.RULES.getBytes(StandardCharsets.UTF_8)) {
+			@Override
+			public void close() {
+				closed[0] = true;
+			}
+		};
+		ByteArrayOutputStream jsonAttributesOutputStream = new ByteArrayOutputStream() {
+			@Override
+			public void close() {
+				closed[1] = true;
+			}
+		};
+		ByteArrayOutputStream ruleMLOutputStream = new ByteArrayOutputStream() {
+			@Override
+			public void close() {
+				closed[2] = true;
+			}
+		};
+		converter.convertRules2RuleML(rulesInputStream, jsonAttributesOutputStream, ruleMLOutputStream, false);
+		assertArrayEquals(new boolean[] {false, false, false}, closed);
+		assertTrue(jsonAttributesOutputStream.size() > 0);
+		assertTrue(ruleMLOutputStream.size() > 0);
+
+		ruleMLOutputStream.reset();
+		PrintStream standardOutput = new PrintStream(ruleMLOutputStream, false, StandardCharsets.UTF_8);
+		String jsonAttributesFilePath = directory.resolve("GermanCredit.meta.json").toString();
+		assertTrue(converter.convertRules2RuleML(RULES_FILE_PATH, jsonAttributesFilePath, StandardStreams.STANDARD_STREAM_PATH, null, false, standardOutput));
+		assertFalse(closed[2]);
+		assertFalse(standardOutput.checkError());
+		assertTrue(ruleMLOutputStream.size() > 0);
+
+		assertFalse(converter.convertRules2RuleML(RULES_FILE_PATH, StandardStreams.STANDARD_STREAM_PATH, StandardStreams.STANDARD_STREAM_PATH, null, false, standardOutput));
+	}
+
+	private static String convert(Rules2RuleMLConverter converter) throws IOException {
+		StringWriter jsonAttributesWriter = new StringWriter();
+		StringWriter ruleMLWriter = new StringWriter();
+		converter.convertRules2RuleML(new InputStreamReader(new FileInputStream(RULES_FILE_PATH), StandardCharsets.UTF_8), jsonAttributesWriter, ruleMLWriter, true);
+		return jsonAttributesWriter.toString() + ruleMLWriter.toString();
+	}
+
+}
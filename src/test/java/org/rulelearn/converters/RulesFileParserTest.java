@@ -0,0 +1,268 @@
+/**
+ * Copyright (C) Marcin Szeląg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rulelearn.converters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.rulelearn.converters.RulesFileParser.ParsedCondition;
+import org.rulelearn.converters.RulesFileParser.ParsedRule;
+import org.rulelearn.converters.RulesFileParser.RelationType;
+import org.rulelearn.core.InvalidValueException;
+import org.rulelearn.data.AttributePreferenceType;
+import org.rulelearn.data.AttributeType;
+import org.rulelearn.data.EvaluationAttribute;
+
+/**
+ * Tests for {@link RulesFileParser}.
+ *
+ * @author Marcin Szeląg (<a href="mailto:marcin.szelag@cs.put.poznan.pl">marcin.szelag@cs.put.poznan.pl</a>)
+ */
+class RulesFileParserTest {
+
+	private static final String HEADER =
+			"[ATTRIBUTES]\n" +
+			"+ a1: [low, medium, high], gain\n" +
+			"+ a2: (integer)\n" +
+			"- a3: (continuous), cost\n" +
+			"+ d: [1, 2]\n" +
+			"decision: d\n" +
+			"\n" +
+			"[PREFERENCES]\n" +
+			"a2: cost\n" +
+			"d: gain\n" +
+			"\n";
+
+	private static final String RULES =
+			"[RULES]\n" +
+			"#Certain at least rules\n" +
+			"1: (a1 >= medium) & (a2 <= 5) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n" +
+			"#Possible at most rules\n" +
+			"2: (a3 = 1.5) => (d <= 1) |POSSIBLE, AT_MOST, 1|\n" +
+			"\n";
+
+	private static final String RULES_INFO =
+			"[RULESINFO]\n" +
+			"#Certain at least rules\n" +
+			"1: (a1 >= medium) & (a2 <= 5) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n" +
+			"LearningPositiveExamples: 1, 2, 3\n" +
+			"Support: 2\n" +
+			"Confidence: 1.0\n" +
+			"\n" +
+			"#Possible at most rules\n" +
+			"2: (a3 = 1.5) => (d <= 1) |POSSIBLE, AT_MOST, 1|\n" +
+			"Support: 4\n" +
+			"Confidence: 0.8\n";
+
+	/**
+	 * Tests if attributes are read from sections [ATTRIBUTES] and [PREFERENCES].
+	 */
+	@Test
+	void testGetAttributes() throws IOException {
+		try (RulesFileParser parser = new RulesFileParser(new StringReader(HEADER + RULES), new FieldCache())) {
+			EvaluationAttribute[] attributes = parser.getAttributes();
+
+			assertEquals(4, attributes.length);
+			assertEquals("a1", attributes[0].getName());
+			assertEquals(AttributePreferenceType.GAIN, attributes[0].getPreferenceType());
+			assertEquals(AttributePreferenceType.COST, attributes[1].getPreferenceType());
+			assertFalse(attributes[2].isActive());
+			assertEquals(AttributePreferenceType.COST, attributes[2].getPreferenceType());
+			assertEquals(AttributeType.CONDITION, attributes[2].getType());
+			assertEquals(AttributeType.DECISION, attributes[3].getType());
+			assertEquals(AttributePreferenceType.GAIN, attributes[3].getPreferenceType());
+		}
+	}
+
+	/**
+	 * Tests if rules are read from section [RULES], without statistics, when there is no section [RULESINFO].
+	 */
+	@Test
+	void testNextRuleWithoutRulesInfo() throws IOException {
+		try (RulesFileParser parser = new RulesFileParser(new StringReader(HEADER + RULES), new FieldCache())) {
+			assertFalse(parser.readsRuleStatistics());
+
+			ParsedRule rule = parser.nextRule();
+			assertNotNull(rule);
+			assertEquals(pl.poznan.put.cs.idss.jrs.rules.Rule.CERTAIN, rule.getType());
+			assertEquals(pl.poznan.put.cs.idss.jrs.rules.Rule.AT_LEAST, rule.getUsage());
+			assertEquals(2, rule.getConditions().size());
+			assertCondition(rule.getConditions().get(0), 0, RelationType.AT_LEAST, "medium");
+			assertCondition(rule.getConditions().get(1), 1, RelationType.AT_MOST, "5");
+			assertCondition(rule.getDecision(), 3, RelationType.AT_LEAST, "2");
+			assertTrue(rule.getStatistics().isEmpty());
+
+			rule = parser.nextRule();
+			assertNotNull(rule);
+			assertEquals(pl.poznan.put.cs.idss.jrs.rules.Rule.POSSIBLE, rule.getType());
+			assertEquals(pl.poznan.put.cs.idss.jrs.rules.Rule.AT_MOST, rule.getUsage());
+			assertCondition(rule.getConditions().get(0), 2, RelationType.EQUAL, "1.5");
+
+			assertNull(parser.nextRule());
+			assertNull(parser.nextRule());
+		}
+	}
+
+	/**
+	 * Tests if rules are read from section [RULESINFO], together with their statistics, when that section is present.
+	 */
+	@Test
+	void testNextRuleWithRulesInfo() throws IOException {
+		try (RulesFileParser parser = new RulesFileParser(new StringReader(HEADER + RULES + RULES_INFO), new FieldCache())) {
+			assertTrue(parser.readsRuleStatistics());
+
+			ParsedRule rule = parser.nextRule();
+			assertEquals(2, rule.getStatistics().size());
+			assertEquals("2", rule.getStatistics().get(RulesFileParser.SUPPORT));
+			assertEquals("1.0", rule.getStatistics().get(RulesFileParser.CONFIDENCE));
+
+			rule = parser.nextRule();
+			assertEquals(pl.poznan.put.cs.idss.jrs.rules.Rule.POSSIBLE, rule.getType());
+			assertEquals("4", rule.getStatistics().get(RulesFileParser.SUPPORT));
+			assertEquals("0.8", rule.getStatistics().get(RulesFileParser.CONFIDENCE));
+
+			assertNull(parser.nextRule());
+		}
+	}
+
+	/**
+	 * Tests if incorrect rule is reported.
+	 */
+	@Test
+	void testNextRuleIncorrect() throws IOException {
+		try (RulesFileParser parser = new RulesFileParser(new StringReader(HEADER + "[RULES]\n1: (a4 >= 1) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n"), new FieldCache())) {
+			assertThrows(InvalidValueException.class, () -> parser.nextRule());
+		}
+	}
+
+	/**
+	 * Tests if conditions are split using names of the attributes, when attribute names contain spaces or relations,
+	 * and enum values contain relations, ampersands, and parentheses.
+	 */
+	@Test
+	void testNextRuleWithSpecialCharacters() throws IOException {
+		String rulesFile =
+				"[ATTRIBUTES]\n" +
+				"+ my attr: (integer), gain\n" +
+				"+ x = y: [a = b, c & (d), e], gain\n" +
+				"+ d: [1, 2], gain\n" +
+				"decision: d\n" +
+				"\n" +
+				"[RULES]\n" +
+				"1: (my attr >= 3) & (x = y = c & (d)) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n" +
+				"2: (x = y <= a = b) & (my attr <= 1) => (d <= 1) |CERTAIN, AT_MOST, 1|\n";
+
+		try (RulesFileParser parser = new RulesFileParser(new StringReader(rulesFile), new FieldCache())) {
+			ParsedRule rule = parser.nextRule();
+			assertEquals(2, rule.getConditions().size());
+			assertCondition(rule.getConditions().get(0), 0, RelationType.AT_LEAST, "3");
+			assertCondition(rule.getConditions().get(1), 1, RelationType.EQUAL, "c & (d)");
+			assertCondition(rule.getDecision(), 2, RelationType.AT_LEAST, "2");
+
+			rule = parser.nextRule();
+			assertEquals(2, rule.getConditions().size());
+			assertCondition(rule.getConditions().get(0), 1, RelationType.AT_MOST, "a = b");
+			assertCondition(rule.getConditions().get(1), 0, RelationType.AT_MOST, "1");
+		}
+	}
+
+	/**
+	 * Tests if section [PREFERENCES] following section [RULES], which would be ignored, is rejected.
+	 */
+	@Test
+	void testPreferencesAfterRules() {
+		assertThrows(InvalidValueException.class, () -> new RulesFileParser(new StringReader(HEADER + RULES + "[PREFERENCES]\na1: cost\n"), new FieldCache()));
+		assertThrows(InvalidValueException.class, () -> {
+			try (RulesFileParser parser = new RulesFileParser(new StringReader(HEADER + RULES + RULES_INFO + "\n[PREFERENCES]\na1: cost\n"), new FieldCache())) {
+				while (parser.nextRule() != null) {
+				}
+			}
+		});
+	}
+
+	/**
+	 * Tests if parser reading *.rules file given by its path returns the same rules and statistics as parser reading that file from a reader.
+	 */
+	@Test
+	void testPathAndReaderGiveSameRules() throws IOException {
+		try (RulesFileParser pathParser = new RulesFileParser(Rules2RuleMLConverterTest.RULES_FILE_PATH, new FieldCache());
+				RulesFileParser readerParser = new RulesFileParser(new InputStreamReader(new FileInputStream(Rules2RuleMLConverterTest.RULES_FILE_PATH), StandardCharsets.UTF_8), new FieldCache())) {
+			assertTrue(pathParser.readsRuleStatistics());
+			assertTrue(readerParser.readsRuleStatistics());
+			assertEquals(pathParser.getAttributes().length, readerParser.getAttributes().length);
+
+			int rulesCount = 0;
+			ParsedRule pathRule;
+			while ((pathRule = pathParser.nextRule()) != null) {
+				ParsedRule readerRule = readerParser.nextRule();
+				assertNotNull(readerRule);
+				assertEquals(pathRule.getType(), readerRule.getType());
+				assertEquals(pathRule.getUsage(), readerRule.getUsage());
+				assertEquals(pathRule.getConditions().size(), readerRule.getConditions().size());
+				assertEquals(pathRule.getStatistics(), readerRule.getStatistics());
+				rulesCount++;
+			}
+			assertNull(readerParser.nextRule());
+			assertEquals(315, rulesCount);
+		}
+	}
+
+	/**
+	 * Tests if section [RULES] read from a reader, longer than {@link RulesFileParser#RULES_SECTION_MEMORY_LIMIT} and not followed
+	 * by section [RULESINFO], gives all rules, and if incorrect rule is reported with its line number.
+	 */
+	@Test
+	void testNextRuleWithoutRulesInfoLongRulesSection() throws IOException {
+		int rulesCount = 20000;
+		StringBuilder rules = new StringBuilder("[RULES]\n");
+		for (int i = 1; i <= rulesCount; i++) {
+			rules.append(i).append(": (a1 >= medium) & (a2 <= 5) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n");
+		}
+		assertTrue(rules.length() > RulesFileParser.RULES_SECTION_MEMORY_LIMIT);
+		rules.append(rulesCount + 1).append(": (a4 >= 1) => (d >= 2) |CERTAIN, AT_LEAST, 2|\n");
+
+		try (RulesFileParser parser = new RulesFileParser(new StringReader(HEADER + rules), new FieldCache())) {
+			assertFalse(parser.readsRuleStatistics());
+
+			for (int i = 1; i <= rulesCount; i++) {
+				ParsedRule rule = parser.nextRule();
+				assertEquals(i, rule.getNumber());
+				assertEquals(2, rule.getConditions().size());
+			}
+			InvalidValueException exception = assertThrows(InvalidValueException.class, () -> parser.nextRule());
+			assertTrue(exception.getMessage().contains("line " + (12 + rulesCount + 1) + "."), exception.getMessage());
+		}
+	}
+
+	private void assertCondition(ParsedCondition condition, int attributeIndex, RelationType relationType, String value) {
+		assertEquals(attributeIndex, condition.getAttributeIndex());
+		assertEquals(relationType, condition.getRelationType());
+		assertEquals(value, condition.getValue());
+	}
+
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) Marcin Szeląg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rulelearn.converters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import pl.poznan.put.cs.idss.jrs.output.OM;
+import pl.poznan.put.cs.idss.jrs.output.SystemOut;
+
+/**
+ * Tests for {@link WatchFolderConverter}.
+ *
+ * @author Marcin Szeląg (<a href="mailto:marcin.szelag@cs.put.poznan.pl">marcin.szelag@cs.put.poznan.pl</a>)
+ */
+class WatchFolderConverterTest {
+
+	private Path directory;
+
+	@BeforeAll
+	static void setUpMessageOutput() {
+		SystemOut systemOut = new SystemOut();
+		OM.addOutput(systemOut);
+		OM.setDefaultOutput(systemOut.getKey());
+	}
+
+	@BeforeEach
+	void setUp() throws IOException {
+		directory = Files.createTempDirectory("WatchFolderConverterTest");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+				Files.delete(file);
+			}
+		}
+	}
+
+	/**
+	 * Tests if *.isf and *.rules files with the same name have different output files.
+	 */
+	@Test
+	void testGetOutputFiles() {
+		Path outputDirectory = Paths.get("out");
+
+		assertEquals(Arrays.asList(outputDirectory.resolve("GermanCredit.isf.meta.json"), outputDirectory.resolve("GermanCredit.data.json")),
+				Arrays.asList(WatchFolderConverter.getOutputFiles(Paths.get("in", "GermanCredit.isf"), outputDirectory)));
+		assertEquals(Arrays.asList(outputDirectory.resolve("GermanCredit.rules.meta.json"), outputDirectory.resolve("GermanCredit.rules.xml")),
+				Arrays.asList(WatchFolderConverter.getOutputFiles(Paths.get("in", "GermanCredit.rules"), outputDirectory)));
+		assertEquals(Arrays.asList(outputDirectory.resolve("a.b.isf.meta.json"), outputDirectory.resolve("a.b.data.json")),
+				Arrays.asList(WatchFolderConverter.getOutputFiles(Paths.get("in", "a.b.ISF"), outputDirectory)));
+	}
+
+	/**
+	 * Tests if temporary output files have unique names and the same permissions as other files created in the output directory,
+	 * rather than permissions restricted to the owner.
+	 */
+	@Test
+	void testCreateTemporaryFile() throws IOException {
+		Path outputFile = directory.resolve("GermanCredit.rules.xml");
+		Path temporaryFile1 = WatchFolderConverter.createTemporaryFile(outputFile);
+		Path temporaryFile2 = WatchFolderConverter.createTemporaryFile(outputFile);
+
+		assertNotEquals(temporaryFile1, temporaryFile2);
+		assertEquals(directory, temporaryFile1.getParent());
+		assertTrue(temporaryFile1.getFileName().toString().startsWith(".GermanCredit.rules.xml."));
+		assertTrue(temporaryFile1.getFileName().toString().endsWith(WatchFolderConverter.TEMPORARY_SUFFIX));
+
+		if (Files.getFileStore(directory).supportsFileAttributeView(PosixFileAttributeView.class)) {
+			Path otherFile = Files.createFile(directory.resolve("other"));
+			assertEquals(Files.getPosixFilePermissions(otherFile), Files.getPosixFilePermissions(temporaryFile1));
+		}
+	}
+
+	/**
+	 * Tests if *.rules files with the same name, from two input directories sharing output directory, are both converted (one after another),
+	 * and no temporary files are left in the output directory.
+	 */
+	@Test
+	void testConvertFilesWithSameOutputFiles() throws IOException, InterruptedException {
+		Path inputDirectory1 = Files.createDirectory(directory.resolve("in1"));
+		Path inputDirectory2 = Files.createDirectory(directory.resolve("in2"));
+		Path outputDirectory = directory.resolve("out");
+		Files.copy(Paths.get(Rules2RuleMLConverterTest.RULES_FILE_PATH), inputDirectory1.resolve("GermanCredit.rules"));
+		Files.copy(Paths.get(Rules2RuleMLConverterTest.RULES_FILE_PATH), inputDirectory2.resolve("GermanCredit.rules"));
+		Path[] outputFiles = WatchFolderConverter.getOutputFiles(inputDirectory1.resolve("GermanCredit.rules"), outputDirectory);
+
+		try (WatchFolderConverter watchFolderConverter = new WatchFolderConverter(false, 4, 100L)) {
+			watchFolderConverter.register(inputDirectory1, outputDirectory);
+			watchFolderConverter.register(inputDirectory2, outputDirectory);
+
+			long deadline = System.currentTimeMillis() + 30000L;
+			while (!watchFolderConverter.isIdle() && System.currentTimeMillis() < deadline) {
+				Thread.sleep(50L);
+			}
+			assertTrue(watchFolderConverter.isIdle());
+		}
+
+		try (Stream<Path> files = Files.list(outputDirectory)) {
+			List<Path> writtenFiles = files.map(Path::getFileName).sorted().collect(Collectors.toList());
+			assertEquals(Arrays.asList(outputFiles[0].getFileName(), outputFiles[1].getFileName()), writtenFiles);
+		}
+		assertTrue(Files.size(outputFiles[1]) > 0);
+	}
+
+}